@@ -0,0 +1,66 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import chess.ChessPiece.PieceType;
+
+/**
+ * Measures {@link ChessPiece#pieceMoves(ChessBoard, ChessPosition)} for every
+ * piece of one type, of both colors, in one position
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PieceMovesBenchmark {
+    @Param({ Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME })
+    public String position;
+
+    @Param
+    public PieceType type;
+
+    private ChessBoard board;
+    private ChessPiece[] pieces;
+    private ChessPosition[] squares;
+
+    @Setup
+    public void setup() {
+        board = Positions.load(position).getBoard();
+        List<ChessPosition> found = new ArrayList<>();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null && piece.getPieceType() == type) {
+                found.add(ChessPosition.ofSquare(square));
+            }
+        }
+        squares = found.toArray(new ChessPosition[0]);
+        pieces = new ChessPiece[squares.length];
+        for (int i = 0; i < squares.length; i++) {
+            pieces[i] = board.getPiece(squares[i]);
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (int i = 0; i < squares.length; i++) {
+            blackhole.consume(pieces[i].pieceMoves(board, squares[i]));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package chess;
+
+/**
+ * The positions every benchmark runs on, covering the three phases of a game
+ */
+final class Positions {
+    /**
+     * Names accepted by {@link #load(String)}, for use in {@code @Param}
+     */
+    static final String OPENING = "opening";
+    static final String MIDDLEGAME = "middlegame";
+    static final String ENDGAME = "endgame";
+
+    // Ruy Lopez after 3. Bb5
+    private static final String OPENING_FEN = "r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3";
+    // Busy position with pins, castling and en passant available
+    private static final String MIDDLEGAME_FEN =
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    // Rook and pawns
+    private static final String ENDGAME_FEN = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    private Positions() {}
+
+    /**
+     * @param name one of {@link #OPENING}, {@link #MIDDLEGAME} and
+     *             {@link #ENDGAME}
+     * @return a new game in that position
+     */
+    static ChessGame load(String name) {
+        switch (name) {
+        case OPENING:
+            return ChessGame.fromFen(OPENING_FEN);
+        case MIDDLEGAME:
+            return ChessGame.fromFen(MIDDLEGAME_FEN);
+        case ENDGAME:
+            return ChessGame.fromFen(ENDGAME_FEN);
+        default:
+            throw new IllegalArgumentException(String.format("Unknown position: %s", name));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the {@link ChessGame} rules API the server calls on every move.
+ * <p>
+ * The game caches its status until the position changes, and the checkmate and
+ * stalemate checks for the team to move read that cache. Those benchmarks get
+ * a {@link FreshCopy} of the game before each call, so they measure working out
+ * the status; {@link #cachedStatus()} measures asking again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RulesBenchmark {
+    @Param({ Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME })
+    public String position;
+
+    private ChessGame game;
+    private ChessPosition[] ownSquares;
+    private ChessMove move;
+
+    @Setup
+    public void setup() {
+        game = Positions.load(position);
+        List<ChessPosition> found = new ArrayList<>();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = game.getBoard().getPiece(square);
+            if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                found.add(ChessPosition.ofSquare(square));
+            }
+        }
+        ownSquares = found.toArray(new ChessPosition[0]);
+
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        move = EncodedMove.toChessMove(moves.get(0));
+    }
+
+    /**
+     * Every valid move of the side to move, one piece at a time like the client
+     * asks for them
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition square : ownSquares) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    /**
+     * A validated move, taken back so every call starts from the same position
+     */
+    @Benchmark
+    public void makeMove() throws InvalidMoveException {
+        game.makeMove(move);
+        game.undoMove();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    /**
+     * Finding check and whether any legal move exists, on a game with nothing
+     * cached
+     */
+    @Benchmark
+    public boolean isInCheckmate(FreshCopy copy) {
+        return copy.game.isInCheckmate(copy.game.getTeamTurn());
+    }
+
+    /**
+     * The same work as {@link #isInCheckmate(FreshCopy)}, reached through the
+     * stalemate check
+     */
+    @Benchmark
+    public boolean isInStalemate(FreshCopy copy) {
+        return copy.game.isInStalemate(copy.game.getTeamTurn());
+    }
+
+    /**
+     * A status already worked out for the position, as when the server asks
+     * again after a move
+     */
+    @Benchmark
+    public ChessGame.GameStatus cachedStatus() {
+        return game.getStatus();
+    }
+
+    /**
+     * A copy of the benchmark's game made before each call, with an empty status
+     * cache. Making it is not part of the measured time.
+     */
+    @State(Scope.Thread)
+    public static class FreshCopy {
+        ChessGame game;
+
+        @Setup(Level.Invocation)
+        public void copy(RulesBenchmark benchmark) {
+            game = new ChessGame(benchmark.game);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+
+/**
+ * Measures the time the engine takes to reach a fixed depth, starting from an
+ * empty transposition table, for comparing thread counts
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({ Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME })
+    public String position;
+
+    @Param({ "1", "4", "16" })
+    public int threads;
+
+    @Param({ "8" })
+    public int depth;
+
+    private ChessGame game;
+    private Engine engine;
+
+    @Setup
+    public void setup() {
+        game = Positions.load(position);
+        engine = new Engine(256);
+    }
+
+    @Benchmark
+    public SearchResult timeToDepth() {
+        engine.clear();
+        return engine.search(game, SearchLimits.depth(depth).withThreads(threads));
+    }
+}
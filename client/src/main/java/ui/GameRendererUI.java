@@ -13,19 +13,19 @@ import chess.ChessPiece.PieceType;
 import chess.ChessPosition;
 
 public abstract class GameRendererUI extends UserInterface {
-    private static ChessPiece whiteRook = new ChessPiece(TeamColor.WHITE, PieceType.ROOK);
-    private static ChessPiece whiteKnight = new ChessPiece(TeamColor.WHITE, PieceType.KNIGHT);
-    private static ChessPiece whiteBishop = new ChessPiece(TeamColor.WHITE, PieceType.BISHOP);
-    private static ChessPiece whiteQueen = new ChessPiece(TeamColor.WHITE, PieceType.QUEEN);
-    private static ChessPiece whiteKing = new ChessPiece(TeamColor.WHITE, PieceType.KING);
-    private static ChessPiece whitePawn = new ChessPiece(TeamColor.WHITE, PieceType.PAWN);
-
-    private static ChessPiece blackRook = new ChessPiece(TeamColor.BLACK, PieceType.ROOK);
-    private static ChessPiece blackKnight = new ChessPiece(TeamColor.BLACK, PieceType.KNIGHT);
-    private static ChessPiece blackBishop = new ChessPiece(TeamColor.BLACK, PieceType.BISHOP);
-    private static ChessPiece blackQueen = new ChessPiece(TeamColor.BLACK, PieceType.QUEEN);
-    private static ChessPiece blackKing = new ChessPiece(TeamColor.BLACK, PieceType.KING);
-    private static ChessPiece blackPawn = new ChessPiece(TeamColor.BLACK, PieceType.PAWN);
+    private static final ChessPiece whiteRook = ChessPiece.of(TeamColor.WHITE, PieceType.ROOK);
+    private static final ChessPiece whiteKnight = ChessPiece.of(TeamColor.WHITE, PieceType.KNIGHT);
+    private static final ChessPiece whiteBishop = ChessPiece.of(TeamColor.WHITE, PieceType.BISHOP);
+    private static final ChessPiece whiteQueen = ChessPiece.of(TeamColor.WHITE, PieceType.QUEEN);
+    private static final ChessPiece whiteKing = ChessPiece.of(TeamColor.WHITE, PieceType.KING);
+    private static final ChessPiece whitePawn = ChessPiece.of(TeamColor.WHITE, PieceType.PAWN);
+
+    private static final ChessPiece blackRook = ChessPiece.of(TeamColor.BLACK, PieceType.ROOK);
+    private static final ChessPiece blackKnight = ChessPiece.of(TeamColor.BLACK, PieceType.KNIGHT);
+    private static final ChessPiece blackBishop = ChessPiece.of(TeamColor.BLACK, PieceType.BISHOP);
+    private static final ChessPiece blackQueen = ChessPiece.of(TeamColor.BLACK, PieceType.QUEEN);
+    private static final ChessPiece blackKing = ChessPiece.of(TeamColor.BLACK, PieceType.KING);
+    private static final ChessPiece blackPawn = ChessPiece.of(TeamColor.BLACK, PieceType.PAWN);
 
     private ChessBoard getBoard(int gameNumber) {
         return getGame(gameNumber).getBoard();
@@ -48,40 +48,40 @@ public abstract class GameRendererUI extends UserInterface {
         if (piece == null) {
             return "   ";
         }
-        if (piece.equals(whitePawn)) {
+        if (piece == whitePawn) {
             return whiteStringColorize(EscapeSequences.WHITE_PAWN);
         }
-        if (piece.equals(whiteRook)) {
+        if (piece == whiteRook) {
             return whiteStringColorize(EscapeSequences.WHITE_ROOK);
         }
-        if (piece.equals(whiteKnight)) {
+        if (piece == whiteKnight) {
             return whiteStringColorize(EscapeSequences.WHITE_KNIGHT);
         }
-        if (piece.equals(whiteBishop)) {
+        if (piece == whiteBishop) {
             return whiteStringColorize(EscapeSequences.WHITE_BISHOP);
         }
-        if (piece.equals(whiteQueen)) {
+        if (piece == whiteQueen) {
             return whiteStringColorize(EscapeSequences.WHITE_QUEEN);
         }
-        if (piece.equals(whiteKing)) {
+        if (piece == whiteKing) {
             return whiteStringColorize(EscapeSequences.WHITE_KING);
         }
-        if (piece.equals(blackPawn)) {
+        if (piece == blackPawn) {
             return blackStringColorize(EscapeSequences.BLACK_PAWN);
         }
-        if (piece.equals(blackRook)) {
+        if (piece == blackRook) {
             return blackStringColorize(EscapeSequences.BLACK_ROOK);
         }
-        if (piece.equals(blackKnight)) {
+        if (piece == blackKnight) {
             return blackStringColorize(EscapeSequences.BLACK_KNIGHT);
         }
-        if (piece.equals(blackBishop)) {
+        if (piece == blackBishop) {
             return blackStringColorize(EscapeSequences.BLACK_BISHOP);
         }
-        if (piece.equals(blackQueen)) {
+        if (piece == blackQueen) {
             return blackStringColorize(EscapeSequences.BLACK_QUEEN);
         }
-        if (piece.equals(blackKing)) {
+        if (piece == blackKing) {
             return blackStringColorize(EscapeSequences.BLACK_KING);
         }
         return "    ";
@@ -91,7 +91,7 @@ public abstract class GameRendererUI extends UserInterface {
         String[][] output = new String[8][8];
         for (int i = 1; i < 9; i++) {
             for (int j = 1; j < 9; j++) {
-                ChessPiece piece = board.getPiece(new ChessPosition(i, j));
+                ChessPiece piece = board.getPiece(ChessPosition.of(i, j));
                 output[i - 1][j - 1] = pieceToString(piece);
             }
         }
@@ -106,7 +106,7 @@ public abstract class GameRendererUI extends UserInterface {
             blackView.append("%s %d ".formatted(EscapeSequences.SET_BG_COLOR_DARK_GREEN, i + 1));
             for (int j = 7; j >= 0; --j) {
                 if ((i + j) % 2 == 1) {
-                    if (highlightSquares.contains(new ChessPosition(i + 1, j + 1))) {
+                    if (highlightSquares.contains(ChessPosition.of(i + 1, j + 1))) {
                         blackView.append(EscapeSequences.SET_BG_COLOR_MAGENTA);
                     }
                     else {
@@ -114,7 +114,7 @@ public abstract class GameRendererUI extends UserInterface {
                     }
                 }
                 else {
-                    if (highlightSquares.contains(new ChessPosition(i + 1, j + 1))) {
+                    if (highlightSquares.contains(ChessPosition.of(i + 1, j + 1))) {
                         blackView.append(EscapeSequences.SET_BG_COLOR_RED);
                     }
                     else {
@@ -139,7 +139,7 @@ public abstract class GameRendererUI extends UserInterface {
             whiteView.append("%s %d ".formatted(EscapeSequences.SET_BG_COLOR_DARK_GREEN, i + 1));
             for (int j = 0; j < 8; j++) {
                 if (((7 - i) + (7 - j)) % 2 == 1) {
-                    if (highlightSquares.contains(new ChessPosition(i + 1, j + 1))) {
+                    if (highlightSquares.contains(ChessPosition.of(i + 1, j + 1))) {
                         whiteView.append(EscapeSequences.SET_BG_COLOR_MAGENTA);
                     }
                     else {
@@ -147,7 +147,7 @@ public abstract class GameRendererUI extends UserInterface {
                     }
                 }
                 else {
-                    if (highlightSquares.contains(new ChessPosition(i + 1, j + 1))) {
+                    if (highlightSquares.contains(ChessPosition.of(i + 1, j + 1))) {
                         whiteView.append(EscapeSequences.SET_BG_COLOR_RED);
                     }
                     else {
@@ -134,7 +134,7 @@ public class GameUI extends GameRendererUI {
 
                 int colIdx = (int) file - (int) 'a' + 1;
                 int rowIdx = (int) rank - (int) '0';
-                return new ChessPosition(rowIdx, colIdx);
+                return ChessPosition.of(rowIdx, colIdx);
         }
 
 }
@@ -4,8 +4,7 @@ import java.util.Scanner;
 
 import javax.websocket.OnMessage;
 
-import com.google.gson.Gson;
-
+import chess.ChessJson;
 import web.WebSocketObserver;
 import websocket.messages.ErrorMsg;
 import websocket.messages.LoadGame;
@@ -17,23 +16,23 @@ public class UserREPL implements WebSocketObserver {
     @Override
     @OnMessage
     public void receiveMessage(String msg) {
-        ServerMessage message = new Gson().fromJson(msg, ServerMessage.class);
+        ServerMessage message = ChessJson.gson().fromJson(msg, ServerMessage.class);
         switch (message.getServerMessageType()) {
         case NOTIFICATION -> {
-            Notification notif = new Gson().fromJson(msg, Notification.class);
+            Notification notif = ChessJson.gson().fromJson(msg, Notification.class);
             System.out.println("%s%s%s".formatted(EscapeSequences.SET_TEXT_COLOR_GREEN, notif.getMessage(),
                     EscapeSequences.RESET_TEXT_COLOR));
             break;
 
         }
         case ERROR -> {
-            ErrorMsg error = new Gson().fromJson(msg, ErrorMsg.class);
+            ErrorMsg error = ChessJson.gson().fromJson(msg, ErrorMsg.class);
             System.out.println("%s%s%s".formatted(EscapeSequences.SET_TEXT_COLOR_RED, error.getErrorMessage(),
                     EscapeSequences.RESET_TEXT_COLOR));
             break;
         }
         case LOAD_GAME -> {
-            LoadGame gameMsg = new Gson().fromJson(msg, LoadGame.class);
+            LoadGame gameMsg = ChessJson.gson().fromJson(msg, LoadGame.class);
             Data.getInstance().setGame(gameMsg.getGame());
             System.out.println();
             System.out.println(((GameUI) Data.getInstance().getUi()).formatBoard());
@@ -14,6 +14,7 @@ import java.util.List;
 import com.google.gson.Gson;
 
 import chess.ChessGame;
+import chess.ChessJson;
 import model.AuthData;
 import model.CreateGameRequest;
 import model.CreateGameResult;
@@ -103,7 +104,7 @@ public class ServerFacade {
 
     private <T> T request(String endpointUrl, String method, Object request, Class<T> responseType) {
         try {
-            Gson gson = new Gson();
+            Gson gson = ChessJson.gson();
 
             URL url = new URI(this.url).resolve(endpointUrl).toURL();
 
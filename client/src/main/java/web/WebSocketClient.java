@@ -11,8 +11,7 @@ import javax.websocket.EndpointConfig;
 import javax.websocket.MessageHandler;
 import javax.websocket.Session;
 
-import com.google.gson.Gson;
-
+import chess.ChessJson;
 import chess.ChessMove;
 import ui.Data;
 import websocket.commands.MakeMove;
@@ -50,21 +49,21 @@ public class WebSocketClient implements MessageHandler.Whole<String> {
     public void connect() throws IOException {
         String authToken = Data.getInstance().getAuthToken();
         int gameID = Data.getInstance().getGameID();
-        sendText(new Gson().toJson(new UserGameCommand(CommandType.CONNECT, authToken, gameID)));
+        sendText(ChessJson.gson().toJson(new UserGameCommand(CommandType.CONNECT, authToken, gameID)));
     }
 
     public void move(ChessMove move) throws IOException {
         MakeMove moveCmd = new MakeMove(Data.getInstance().getAuthToken(), Data.getInstance().getGameID(), move);
-        sendText(new Gson().toJson(moveCmd));
+        sendText(ChessJson.gson().toJson(moveCmd));
     }
 
     public void leave() throws IOException {
-        sendText(new Gson().toJson(new UserGameCommand(UserGameCommand.CommandType.LEAVE,
+        sendText(ChessJson.gson().toJson(new UserGameCommand(UserGameCommand.CommandType.LEAVE,
                 Data.getInstance().getAuthToken(), Data.getInstance().getGameID())));
     }
 
     public void resign() throws IOException {
-        sendText(new Gson().toJson(new UserGameCommand(UserGameCommand.CommandType.RESIGN,
+        sendText(ChessJson.gson().toJson(new UserGameCommand(UserGameCommand.CommandType.RESIGN,
                 Data.getInstance().getAuthToken(), Data.getInstance().getGameID())));
     }
 }
@@ -5,7 +5,7 @@ public class Main {
     public static void main(String[] args) {
         Server server = new Server();
         server.run(8080);
-        var piece = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        var piece = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
         System.out.println("♕ 240 Chess Server: " + piece);
     }
 }
\ No newline at end of file
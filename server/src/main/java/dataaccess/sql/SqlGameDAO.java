@@ -2,12 +2,15 @@ package dataaccess.sql;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.HashSet;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
 import chess.ChessGame;
+import chess.ChessGameCodec;
+import chess.ChessJson;
 import dataaccess.DataAccessException;
 import dataaccess.GameDAO;
 import model.GameData;
@@ -83,6 +86,25 @@ public class SqlGameDAO extends SqlDAO implements GameDAO {
     private static GameData parseGame(ResultSet resultSet) throws SQLException {
         return new GameData(resultSet.getInt("gameID"), resultSet.getString("whiteUsername"),
                 resultSet.getString("blackUsername"), resultSet.getString("gameName"),
-                new Gson().fromJson(resultSet.getString("game"), ChessGame.class));
+                readGame(resultSet.getString("game")));
+    }
+
+    private static ChessGame readGame(String game) throws SQLException {
+        // Rows written before the binary codec hold the game as version 1 JSON, with a nested ChessPiece[8][8]
+        // board that only the ChessJson adapters can turn back into a bitboard ChessBoard
+        if (game.startsWith("{")) {
+            try {
+                return ChessJson.gson().fromJson(game, ChessGame.class);
+            }
+            catch (JsonParseException e) {
+                throw new SQLException("Stored game could not be read", e);
+            }
+        }
+        try {
+            return ChessGameCodec.fromBytes(Base64.getDecoder().decode(game));
+        }
+        catch (IllegalArgumentException e) {
+            throw new SQLException("Stored game could not be read", e);
+        }
     }
 }
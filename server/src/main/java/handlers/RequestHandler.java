@@ -4,6 +4,7 @@ import java.net.HttpURLConnection;
 
 import com.google.gson.Gson;
 
+import chess.ChessJson;
 import dataaccess.DataAccess;
 import service.ServerException;
 import spark.Request;
@@ -27,7 +28,7 @@ public abstract class RequestHandler<T> implements Route {
      */
     @Override
     public Object handle(Request request, Response response) throws ServerException {
-        Gson serializer = new Gson();
+        Gson serializer = ChessJson.gson();
         String token = request.headers("Authorization");
 
         T reqObj = null;
@@ -2,8 +2,7 @@ package handlers;
 
 import java.util.Map;
 
-import com.google.gson.Gson;
-
+import chess.ChessJson;
 import spark.ExceptionHandler;
 import spark.Request;
 import spark.Response;
@@ -25,6 +24,6 @@ public class ServerExceptionHandler<T extends Exception> implements ExceptionHan
             type.printStackTrace();
         }
         response.status(code);
-        response.body(new Gson().toJson(Map.of("message", type.getMessage())));
+        response.body(ChessJson.gson().toJson(Map.of("message", type.getMessage())));
     }
 }
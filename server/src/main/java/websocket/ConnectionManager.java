@@ -5,8 +5,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jetty.websocket.api.Session;
 
-import com.google.gson.Gson;
-
+import chess.ChessJson;
 import websocket.messages.ErrorMsg;
 import websocket.messages.ServerMessage;
 
@@ -47,7 +46,7 @@ public class ConnectionManager {
 
     public void error(Session session, String message) throws IOException {
         ServerMessage err = new ErrorMsg(message);
-        send(session, new Gson().toJson(err));
+        send(session, ChessJson.gson().toJson(err));
     }
 
     public void send(Session session, String message) throws IOException {
@@ -8,13 +8,15 @@ import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
 
-import com.google.gson.Gson;
-
 import chess.ChessBoard;
+import chess.ChessGame.GameStatus;
 import chess.ChessGame.TeamColor;
+import chess.ChessJson;
 import chess.ChessMove;
 import chess.ChessPosition;
+import chess.GameSnapshot;
 import chess.InvalidMoveException;
+import chess.MoveHistory;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
 import model.AuthData;
@@ -52,7 +54,7 @@ public class WebSocketHandler {
 
     @OnWebSocketMessage
     public void onMessage(Session session, String message) throws IOException {
-        UserGameCommand cmd = new Gson().fromJson(message, UserGameCommand.class);
+        UserGameCommand cmd = ChessJson.gson().fromJson(message, UserGameCommand.class);
         DataPair dataPair = getData(session, cmd);
         if (dataPair == null) {
             return;
@@ -62,7 +64,7 @@ public class WebSocketHandler {
             connect(session, cmd, dataPair);
             break;
         case MAKE_MOVE:
-            MakeMove moveCmd = new Gson().fromJson(message, MakeMove.class);
+            MakeMove moveCmd = ChessJson.gson().fromJson(message, MakeMove.class);
             makeMove(session, moveCmd, dataPair);
             break;
         case RESIGN:
@@ -120,10 +122,10 @@ public class WebSocketHandler {
             notification = new Notification("%s is now observing the game.".formatted(username));
         }
 
-        manager.broadcast(session, new Gson().toJson(notification));
+        manager.broadcast(session, ChessJson.gson().toJson(notification));
 
-        LoadGame loadGame = new LoadGame(gameData.game());
-        manager.send(session, new Gson().toJson(loadGame));
+        LoadGame loadGame = new LoadGame(gameData.game().snapshot());
+        manager.send(session, ChessJson.gson().toJson(loadGame));
 
     }
 
@@ -149,6 +151,11 @@ public class WebSocketHandler {
             return;
         }
 
+        if (!move.getStartPosition().isOnBoard() || !move.getEndPosition().isOnBoard()) {
+            sendError(session, "That is not a valid move.");
+            return;
+        }
+
         ChessBoard board = gameData.game().getBoard();
         if (board.getPiece(move.getStartPosition()) == null) {
             sendError(session, "Error: You are trying to move a piece that does not exist.");
@@ -161,43 +168,30 @@ public class WebSocketHandler {
         }
 
         try {
-            gameData.game().makeMove(move);
+            GameStatus status = gameData.game().makeMove(move);
             Notification notif;
 
             String start = chessNotation(move.getStartPosition());
             String end = chessNotation(move.getEndPosition());
-            notif = new Notification("%s has made a move from %s to %s".formatted(username, start, end));
-
-            manager.broadcast(session, new Gson().toJson(notif));
-            if (gameData.game().isInCheckmate(opponent)) {
-                notif = new Notification("Checkmate! %s is the winner.".formatted(opponent.toString().toLowerCase()));
-
-                gameData.game().setGameOver(true);
-                String notifJson = new Gson().toJson(notif);
-                manager.send(session, notifJson);
-                manager.broadcast(session, notifJson);
-            }
-            else if (gameData.game().isInStalemate(opponent)) {
-                notif = new Notification("Stalemate caused by %s. Game ends with a tie!".formatted(username));
-
-                gameData.game().setGameOver(true);
-                String notifJson = new Gson().toJson(notif);
-                manager.send(session, notifJson);
-                manager.broadcast(session, notifJson);
-            }
-
-            else if (gameData.game().isInCheck(opponent)) {
-                notif = new Notification("%s is in check.".formatted(opponent.toString().toLowerCase()));
-
-                String notifJson = new Gson().toJson(notif);
+            MoveHistory history = gameData.game().getMoveHistory();
+            String san = history.getSan(history.size() - 1);
+            notif = new Notification("%s has made a move from %s to %s (%s)".formatted(username, start, end, san));
+
+            manager.broadcast(session, ChessJson.gson().toJson(notif));
+            notif = statusNotification(status, username, opponent);
+            if (notif != null) {
+                String notifJson = ChessJson.gson().toJson(notif);
                 manager.send(session, notifJson);
                 manager.broadcast(session, notifJson);
             }
 
+            // Everyone is sent the same snapshot, which stays put if the game changes again while sending
+            GameSnapshot snapshot = gameData.game().snapshot();
             dataAccess.getGameDAO().updateGame(gameData);
 
-            broadcastGame(session, gameData);
-            sendGame(session, gameData);
+            String loadGame = ChessJson.gson().toJson(new LoadGame(snapshot));
+            manager.broadcast(session, loadGame);
+            manager.send(session, loadGame);
         }
         catch (InvalidMoveException e) {
             sendError(session, "That is not a valid move.");
@@ -209,6 +203,25 @@ public class WebSocketHandler {
         }
     }
 
+    private Notification statusNotification(GameStatus status, String username, TeamColor opponent) {
+        switch (status) {
+        case CHECKMATE:
+            return new Notification("Checkmate! %s is the winner.".formatted(opponent.toString().toLowerCase()));
+        case STALEMATE:
+            return new Notification("Stalemate caused by %s. Game ends with a tie!".formatted(username));
+        case DRAW_REPETITION:
+            return new Notification("Draw by threefold repetition. Game ends with a tie!");
+        case DRAW_FIFTY_MOVES:
+            return new Notification("Draw by the fifty-move rule. Game ends with a tie!");
+        case DRAW_INSUFFICIENT_MATERIAL:
+            return new Notification("Draw by insufficient material. Game ends with a tie!");
+        case CHECK:
+            return new Notification("%s is in check.".formatted(opponent.toString().toLowerCase()));
+        default:
+            return null;
+        }
+    }
+
     private String chessNotation(ChessPosition pos) {
         int row = pos.getRow();
         int col = pos.getColumn();
@@ -232,7 +245,7 @@ public class WebSocketHandler {
             return;
         }
 
-        gameData.game().setGameOver(true);
+        gameData.game().resign(userColor);
         try {
             dataAccess.getGameDAO().updateGame(gameData);
         }
@@ -242,8 +255,8 @@ public class WebSocketHandler {
         }
         Notification notif = new Notification(
                 "%s has resigned, %s is the winner!".formatted(username, opponentUsername));
-        manager.broadcast(session, new Gson().toJson(notif));
-        manager.send(session, new Gson().toJson(notif));
+        manager.broadcast(session, ChessJson.gson().toJson(notif));
+        manager.send(session, ChessJson.gson().toJson(notif));
     }
 
     private void leave(Session session, UserGameCommand cmd, DataPair dataPair) throws IOException {
@@ -251,7 +264,7 @@ public class WebSocketHandler {
         TeamColor userColor = getTeamColor(username, dataPair.getGameData());
         GameData gameData = dataPair.getGameData();
         Notification notification = new Notification("%s has left the game.".formatted(username));
-        manager.broadcast(session, new Gson().toJson(notification));
+        manager.broadcast(session, ChessJson.gson().toJson(notification));
 
         if (userColor.equals(TeamColor.WHITE)) {
             gameData = gameData.setWhiteUsername(null);
@@ -270,16 +283,6 @@ public class WebSocketHandler {
 
     }
 
-    private void broadcastGame(Session session, GameData gameData) throws IOException {
-        LoadGame loadGame = new LoadGame(gameData.game());
-        manager.broadcast(session, new Gson().toJson(loadGame));
-    }
-
-    private void sendGame(Session session, GameData gameData) throws IOException {
-        LoadGame loadGame = new LoadGame(gameData.game());
-        manager.send(session, new Gson().toJson(loadGame));
-    }
-
     private TeamColor getTeamColor(String username, GameData gameData) {
         if (username.equals(gameData.whiteUsername())) {
             return TeamColor.WHITE;
@@ -0,0 +1,283 @@
+package chess;
+
+import chess.ChessGame.TeamColor;
+
+/**
+ * Precomputed attack lookup tables shared by every game.
+ * <p>
+ * Knights, kings and pawn captures are a single 64-entry lookup per square.
+ * Sliding pieces use magic bitboards: the blockers on a square's relevant rays
+ * are multiplied by a magic number and shifted to form an index into that
+ * square's attack table. All tables are built once when the class is loaded.
+ * Squares use the same indexing as {@link ChessBoard#squareIndex(int, int)}.
+ */
+public final class AttackTables {
+    private static final int[][] ROOK_DIRECTIONS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+    private static final int[][] BISHOP_DIRECTIONS = { { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 } };
+
+    private static final int[][] KNIGHT_OFFSETS = { { 2, 1 }, { 2, -1 }, { -2, 1 }, { -2, -1 }, { 1, 2 }, { 1, -2 },
+            { -1, 2 }, { -1, -2 } };
+    private static final int[][] KING_OFFSETS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 }, { 1, 1 }, { 1, -1 },
+            { -1, 1 }, { -1, -1 } };
+    private static final int[][] WHITE_PAWN_OFFSETS = { { 1, 1 }, { 1, -1 } };
+    private static final int[][] BLACK_PAWN_OFFSETS = { { -1, 1 }, { -1, -1 } };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    static {
+        // Fixed seed so every JVM builds identical tables
+        long[] seed = { 0x9E3779B97F4A7C15L };
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = offsetAttacks(square, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = offsetAttacks(square, KING_OFFSETS);
+            PAWN_ATTACKS[TeamColor.WHITE.ordinal()][square] = offsetAttacks(square, WHITE_PAWN_OFFSETS);
+            PAWN_ATTACKS[TeamColor.BLACK.ordinal()][square] = offsetAttacks(square, BLACK_PAWN_OFFSETS);
+            initMagic(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS, seed);
+            initMagic(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS, seed);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                initLine(a, b);
+            }
+        }
+    }
+
+    private AttackTables() {}
+
+    /**
+     * @param square the knight's square index
+     * @return Bitboard of the squares a knight attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @param square the king's square index
+     * @return Bitboard of the squares a king attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @param color  the pawn's team
+     * @param square the pawn's square index
+     * @return Bitboard of the squares a pawn attacks diagonally
+     */
+    public static long pawnAttacks(TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * @param square   the rook's square index
+     * @param occupied bitboard of every occupied square
+     * @return Bitboard of the squares a rook attacks, including blockers of either
+     *         color
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_ATTACKS[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square])
+                >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * @param square   the bishop's square index
+     * @param occupied bitboard of every occupied square
+     * @return Bitboard of the squares a bishop attacks, including blockers of
+     *         either color
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_ATTACKS[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square])
+                >>> BISHOP_SHIFTS[square])];
+    }
+
+    /**
+     * @param square   the queen's square index
+     * @param occupied bitboard of every occupied square
+     * @return Bitboard of the squares a queen attacks, including blockers of
+     *         either color
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @param a a square index
+     * @param b another square index
+     * @return Bitboard of the squares strictly between a and b if they share a
+     *         rank, file or diagonal, otherwise 0
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @param a a square index
+     * @param b another square index
+     * @return Bitboard of the whole rank, file or diagonal through a and b, edge
+     *         to edge, or 0 if they are not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Fills in the between and line masks for one pair of squares
+     */
+    private static void initLine(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        long bitA = 1L << a;
+        long bitB = 1L << b;
+        if ((rookAttacks(a, 0L) & bitB) != 0) {
+            BETWEEN[a][b] = rookAttacks(a, bitB) & rookAttacks(b, bitA);
+            LINE[a][b] = (rookAttacks(a, 0L) & rookAttacks(b, 0L)) | bitA | bitB;
+        }
+        else if ((bishopAttacks(a, 0L) & bitB) != 0) {
+            BETWEEN[a][b] = bishopAttacks(a, bitB) & bishopAttacks(b, bitA);
+            LINE[a][b] = (bishopAttacks(a, 0L) & bishopAttacks(b, 0L)) | bitA | bitB;
+        }
+    }
+
+    /**
+     * Gets the squares reached by jumping by each offset, skipping jumps that
+     * leave the board
+     */
+    private static long offsetAttacks(int square, int[][] offsets) {
+        long attacks = 0;
+        for (int[] offset : offsets) {
+            int row = square / 8 + offset[0];
+            int col = square % 8 + offset[1];
+            if (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                attacks |= 1L << (row * 8 + col);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Finds a magic number for one square and fills in its attack table
+     */
+    private static void initMagic(int square, int[][] directions, long[] masks, long[] magics, int[] shifts,
+            long[][] attacks, long[] seed) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] references = new long[size];
+
+        // Enumerate every subset of the mask (Carry-Rippler)
+        long subset = 0;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            references[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] table = new long[size];
+        int[] epoch = new int[size];
+        int attempt = 0;
+        while (true) {
+            long magic = sparseRandom(seed);
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            attempt++;
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epoch[index] < attempt) {
+                    epoch[index] = attempt;
+                    table[index] = references[i];
+                }
+                else if (table[index] != references[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                masks[square] = mask;
+                magics[square] = magic;
+                shifts[square] = 64 - bits;
+                attacks[square] = table;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the squares whose occupancy can change a slider's attacks; the last
+     * square of each ray is left out since it is attacked either way
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0;
+        int startRow = square / 8;
+        int startCol = square % 8;
+        for (int[] direction : directions) {
+            int row = startRow + direction[0];
+            int col = startCol + direction[1];
+            while (row + direction[0] >= 0 && row + direction[0] < 8 && col + direction[1] >= 0
+                    && col + direction[1] < 8) {
+                mask |= 1L << (row * 8 + col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Walks each ray square by square; only used to build the tables
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        int startRow = square / 8;
+        int startCol = square % 8;
+        for (int[] direction : directions) {
+            int row = startRow + direction[0];
+            int col = startCol + direction[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                long bit = 1L << (row * 8 + col);
+                attacks |= bit;
+                // Can't see past a blocker
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * xorshift64* generator; magics with few set bits are found much faster
+     */
+    private static long sparseRandom(long[] seed) {
+        return nextRandom(seed) & nextRandom(seed) & nextRandom(seed);
+    }
+
+    private static long nextRandom(long[] seed) {
+        long x = seed[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        seed[0] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -7,15 +7,53 @@ import chess.ChessPiece.PieceType;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
+ * <p>
+ * The board is stored as bitboards: one {@code long} per piece type and color,
+ * plus an occupancy mask per color. Bit {@code n} of a bitboard is the square
+ * with index {@code n}, where a1 is 0, h1 is 7 and h8 is 63 (see
+ * {@link #squareIndex(int, int)}).
+ * <p>
+ * The board also keeps the Zobrist key of its pieces up to date as pieces are
+ * added and removed, along with a key of the pawns alone and the
+ * {@link PieceSquareTables} sums and game phase used to score positions.
  */
 public class ChessBoard {
-    private ChessPiece[][] board;
+    /**
+     * Square index returned when there is no such square, e.g. a missing king
+     */
+    public static final int NO_SQUARE = -1;
+
+    private static final int PIECE_TYPES = PieceType.values().length;
+
+    private long[] pieces;
+    private long[] occupancy;
+    private long zobristKey;
+    private long pawnKey;
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
 
     /**
      * Constructor to generate a blank new chess board.
      */
     public ChessBoard() {
-        board = new ChessPiece[8][8];
+        pieces = new long[2 * PIECE_TYPES];
+        occupancy = new long[2];
+    }
+
+    /**
+     * Creates a copy of a board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        pieces = other.pieces.clone();
+        occupancy = other.occupancy.clone();
+        zobristKey = other.zobristKey;
+        pawnKey = other.pawnKey;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
     }
 
     /**
@@ -23,9 +61,29 @@ public class ChessBoard {
      *
      * @param position where to add the piece to
      * @param piece    the piece to add
+     * @throws IllegalArgumentException if the position is off the board
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow() - 1][position.getColumn() - 1] = piece;
+        addPiece(checkedIndex(position), piece);
+    }
+
+    /**
+     * Adds a chess piece to the chessboard, replacing whatever was on the square
+     *
+     * @param square the square index to add the piece to
+     * @param piece  the piece to add, or null to empty the square
+     * @throws IllegalArgumentException if the square is not from 0 to 63
+     */
+    public void addPiece(int square, ChessPiece piece) {
+        checkSquare(square);
+        clearSquare(square);
+        if (piece != null) {
+            long bit = 1L << square;
+            int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+            pieces[index] |= bit;
+            occupancy[piece.getTeamColor().ordinal()] |= bit;
+            updateKeysAndScores(index, square, 1);
+        }
     }
 
     /**
@@ -34,9 +92,39 @@ public class ChessBoard {
      * @param position The position to get the piece from
      * @return Either the piece at the position, or null if no piece is at that
      *         position
+     * @throws IllegalArgumentException if the position is off the board
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow() - 1][position.getColumn() - 1];
+        return getPiece(checkedIndex(position));
+    }
+
+    /**
+     * Gets a chess piece on the chessboard
+     *
+     * @param square The square index to get the piece from
+     * @return Either the piece at the square, or null if the square is empty
+     * @throws IllegalArgumentException if the square is not from 0 to 63
+     */
+    public ChessPiece getPiece(int square) {
+        checkSquare(square);
+        long bit = 1L << square;
+        int color;
+        if ((occupancy[0] & bit) != 0) {
+            color = 0;
+        }
+        else if ((occupancy[1] & bit) != 0) {
+            color = 1;
+        }
+        else {
+            return null;
+        }
+        int index = color * PIECE_TYPES;
+        for (int type = 0; type < PIECE_TYPES; type++, index++) {
+            if ((pieces[index] & bit) != 0) {
+                return ChessPiece.of(index);
+            }
+        }
+        return null;
     }
 
     /**
@@ -45,38 +133,214 @@ public class ChessBoard {
      */
     public void resetBoard() {
         // Reset the board
-        board = new ChessPiece[8][8];
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(occupancy, 0L);
+        zobristKey = 0L;
+        pawnKey = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
         // Set white pieces (besides pawns)
-        board[0][0] = new ChessPiece(TeamColor.WHITE, PieceType.ROOK);
-        board[0][1] = new ChessPiece(TeamColor.WHITE, PieceType.KNIGHT);
-        board[0][2] = new ChessPiece(TeamColor.WHITE, PieceType.BISHOP);
-        board[0][3] = new ChessPiece(TeamColor.WHITE, PieceType.QUEEN);
-        board[0][4] = new ChessPiece(TeamColor.WHITE, PieceType.KING);
-        board[0][5] = new ChessPiece(TeamColor.WHITE, PieceType.BISHOP);
-        board[0][6] = new ChessPiece(TeamColor.WHITE, PieceType.KNIGHT);
-        board[0][7] = new ChessPiece(TeamColor.WHITE, PieceType.ROOK);
+        setPieces(TeamColor.WHITE, PieceType.ROOK, 0x81L);
+        setPieces(TeamColor.WHITE, PieceType.KNIGHT, 0x42L);
+        setPieces(TeamColor.WHITE, PieceType.BISHOP, 0x24L);
+        setPieces(TeamColor.WHITE, PieceType.QUEEN, 0x08L);
+        setPieces(TeamColor.WHITE, PieceType.KING, 0x10L);
         // Set black pieces (besides pawns)
-        board[7][0] = new ChessPiece(TeamColor.BLACK, PieceType.ROOK);
-        board[7][1] = new ChessPiece(TeamColor.BLACK, PieceType.KNIGHT);
-        board[7][2] = new ChessPiece(TeamColor.BLACK, PieceType.BISHOP);
-        board[7][3] = new ChessPiece(TeamColor.BLACK, PieceType.QUEEN);
-        board[7][4] = new ChessPiece(TeamColor.BLACK, PieceType.KING);
-        board[7][5] = new ChessPiece(TeamColor.BLACK, PieceType.BISHOP);
-        board[7][6] = new ChessPiece(TeamColor.BLACK, PieceType.KNIGHT);
-        board[7][7] = new ChessPiece(TeamColor.BLACK, PieceType.ROOK);
+        setPieces(TeamColor.BLACK, PieceType.ROOK, 0x81L << 56);
+        setPieces(TeamColor.BLACK, PieceType.KNIGHT, 0x42L << 56);
+        setPieces(TeamColor.BLACK, PieceType.BISHOP, 0x24L << 56);
+        setPieces(TeamColor.BLACK, PieceType.QUEEN, 0x08L << 56);
+        setPieces(TeamColor.BLACK, PieceType.KING, 0x10L << 56);
         // Set up the pawns
-        for (int i = 0; i < 8; i++) {
-            board[1][i] = new ChessPiece(TeamColor.WHITE, PieceType.PAWN);
-            board[6][i] = new ChessPiece(TeamColor.BLACK, PieceType.PAWN);
+        setPieces(TeamColor.WHITE, PieceType.PAWN, 0xFFL << 8);
+        setPieces(TeamColor.BLACK, PieceType.PAWN, 0xFFL << 48);
+    }
+
+    /**
+     * @param color which team's pieces to get
+     * @param type  which type of piece to get
+     * @return Bitboard of the squares holding pieces of the given color and type
+     */
+    public long getPieces(TeamColor color, PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+    /**
+     * @param color which team's pieces to count
+     * @param type  which type of piece to count
+     * @return how many pieces of the given color and type are on the board
+     */
+    public int getPieceCount(TeamColor color, PieceType type) {
+        return Long.bitCount(pieces[pieceIndex(color, type)]);
+    }
+
+    /**
+     * Gets the square of a team's king. The king bitboard is updated by every
+     * {@link #addPiece(int, ChessPiece)}, so this never scans the board.
+     *
+     * @param color which team's king to find
+     * @return the king's square index, or {@link #NO_SQUARE} if that team has no
+     *         king on the board
+     */
+    public int getKingSquare(TeamColor color) {
+        long king = pieces[pieceIndex(color, PieceType.KING)];
+        return (king == 0) ? NO_SQUARE : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * @param color which team's pieces to get
+     * @return Bitboard of the squares holding any piece of the given color
+     */
+    public long getOccupancy(TeamColor color) {
+        return occupancy[color.ordinal()];
+    }
+
+    /**
+     * @return Bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return occupancy[0] | occupancy[1];
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, not including side to
+     *         move, castling or en passant state
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Gets the Zobrist key of the pawns alone, for caching pawn structure
+     * scores, which change far less often than the rest of the position
+     *
+     * @return the XOR of the {@link Zobrist} keys of every pawn
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * @return the sum of the {@link PieceSquareTables#midgame(int, int)} values
+     *         of every piece, positive when white is ahead
+     */
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    /**
+     * @return the sum of the {@link PieceSquareTables#endgame(int, int)} values
+     *         of every piece, positive when white is ahead
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Gets the game phase from the pieces left, which goes down as pieces are
+     * traded. It can pass {@link PieceSquareTables#MAX_PHASE} after promotions.
+     *
+     * @return the phase, 0 when only kings and pawns are left
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Gets the square index of a position, as used for bit positions in the
+     * bitboards
+     *
+     * @param row row number (1 for the bottom)
+     * @param col column number (1 for the left)
+     * @return the square index, from 0 (a1) to 63 (h8)
+     */
+    public static int squareIndex(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @param position the position to convert
+     * @return the square index, from 0 (a1) to 63 (h8)
+     */
+    public static int squareIndex(ChessPosition position) {
+        return squareIndex(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * Gets the index of a piece's bitboard
+     *
+     * @param color the piece's team
+     * @param type  the piece's type
+     * @return a number from 0 to 11 identifying the color and type
+     */
+    static int pieceIndex(TeamColor color, PieceType type) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+
+    private void setPieces(TeamColor color, PieceType type, long squares) {
+        int index = pieceIndex(color, type);
+        pieces[index] |= squares;
+        occupancy[color.ordinal()] |= squares;
+        for (long remaining = squares; remaining != 0; remaining &= remaining - 1) {
+            updateKeysAndScores(index, Long.numberOfTrailingZeros(remaining), 1);
+        }
+    }
+
+    /**
+     * Converts a position to its square index. Shifting by an index outside the
+     * board would silently wrap onto another square, so such positions are
+     * rejected.
+     */
+    static int checkedIndex(ChessPosition position) {
+        if (!position.isOnBoard()) {
+            throw new IllegalArgumentException(String.format("Position off the board: row %d, column %d",
+                    position.getRow(), position.getColumn()));
+        }
+        return squareIndex(position);
+    }
+
+    private static void checkSquare(int square) {
+        if ((square & ~63) != 0) {
+            throw new IllegalArgumentException(String.format("Square off the board: %d", square));
         }
     }
 
+    private void clearSquare(int square) {
+        long bit = 1L << square;
+        if (((occupancy[0] | occupancy[1]) & bit) == 0) {
+            return;
+        }
+        for (int i = 0; i < pieces.length; i++) {
+            if ((pieces[i] & bit) != 0) {
+                pieces[i] &= ~bit;
+                updateKeysAndScores(i, square, -1);
+                break;
+            }
+        }
+        occupancy[0] &= ~bit;
+        occupancy[1] &= ~bit;
+    }
+
+    /**
+     * Adds or removes a piece's share of the keys, scores and phase
+     *
+     * @param sign 1 when the piece is added, -1 when it is removed
+     */
+    private void updateKeysAndScores(int index, int square, int sign) {
+        long key = Zobrist.piece(index, square);
+        zobristKey ^= key;
+        if (index % PIECE_TYPES == PieceType.PAWN.ordinal()) {
+            pawnKey ^= key;
+        }
+        midgameScore += sign * PieceSquareTables.midgame(index, square);
+        endgameScore += sign * PieceSquareTables.endgame(index, square);
+        phase += sign * PieceSquareTables.phase(index);
+    }
+
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + Arrays.deepHashCode(board);
-        return result;
+        return Long.hashCode(zobristKey);
     }
 
     @Override
@@ -91,7 +355,11 @@ public class ChessBoard {
             return false;
         }
         ChessBoard other = (ChessBoard) obj;
-        if (!Arrays.deepEquals(board, other.board)) {
+        // Different keys always mean different pieces
+        if (zobristKey != other.zobristKey) {
+            return false;
+        }
+        if (!Arrays.equals(pieces, other.pieces)) {
             return false;
         }
         return true;
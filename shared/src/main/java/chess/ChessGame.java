@@ -1,7 +1,8 @@
 package chess;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
 
 import chess.ChessPiece.PieceType;
 
@@ -21,26 +22,123 @@ public class ChessGame {
         }
     }
 
+    /**
+     * The state of a game for the team whose turn it is
+     */
+    public enum GameStatus {
+        NORMAL, CHECK, CHECKMATE, STALEMATE, DRAW_REPETITION, DRAW_FIFTY_MOVES, DRAW_INSUFFICIENT_MATERIAL;
+
+        /**
+         * @return True if no more moves can be played
+         */
+        public boolean isGameOver() {
+            return this != NORMAL && this != CHECK;
+        }
+
+        /**
+         * @return True if the game ended without a winner
+         */
+        public boolean isDraw() {
+            return isGameOver() && this != CHECKMATE;
+        }
+    }
+
+    /**
+     * The standard starting position in Forsyth-Edwards Notation
+     */
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final int ALL_CASTLING_RIGHTS = Zobrist.WHITE_KINGSIDE | Zobrist.WHITE_QUEENSIDE
+            | Zobrist.BLACK_KINGSIDE | Zobrist.BLACK_QUEENSIDE;
+
+    /**
+     * Castling rights kept after a move touches each square; moving from or
+     * capturing on a king or rook start square loses the matching rights
+     */
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING_RIGHTS);
+        CASTLING_MASKS[ChessBoard.squareIndex(1, 5)] &= ~(Zobrist.WHITE_KINGSIDE | Zobrist.WHITE_QUEENSIDE);
+        CASTLING_MASKS[ChessBoard.squareIndex(1, 8)] &= ~Zobrist.WHITE_KINGSIDE;
+        CASTLING_MASKS[ChessBoard.squareIndex(1, 1)] &= ~Zobrist.WHITE_QUEENSIDE;
+        CASTLING_MASKS[ChessBoard.squareIndex(8, 5)] &= ~(Zobrist.BLACK_KINGSIDE | Zobrist.BLACK_QUEENSIDE);
+        CASTLING_MASKS[ChessBoard.squareIndex(8, 8)] &= ~Zobrist.BLACK_KINGSIDE;
+        CASTLING_MASKS[ChessBoard.squareIndex(8, 1)] &= ~Zobrist.BLACK_QUEENSIDE;
+    }
+
+    // Undo record layout, packed into one long per move
+    private static final int UNDO_FROM_SHIFT = 0;
+    private static final int UNDO_TO_SHIFT = 6;
+    private static final int UNDO_MOVED_SHIFT = 12;
+    private static final int UNDO_CAPTURED_SHIFT = 16;
+    private static final int UNDO_CASTLING_SHIFT = 20;
+    private static final int UNDO_EN_PASSANT_SHIFT = 24;
+    private static final int UNDO_HALFMOVE_SHIFT = 32;
+
+    // Squares a dark-squared bishop can stand on, a1 included
+    private static final long DARK_SQUARES = 0xAA55AA55AA55AA55L;
+
     private ChessBoard board;
     private TeamColor teamTurn;
-    private boolean canBlackKingsideCastle;
-    private boolean canWhiteKingsideCastle;
-    private boolean canBlackQueensideCastle;
-    private boolean canWhiteQueensideCastle;
-    private ChessPosition enPassantLocation;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
     private boolean gameOver;
+    private TeamColor resigned;
+    private transient long[] undoStack;
+    private transient int undoCount;
+    // The position key before each move on the undo stack, for finding repetitions
+    private transient long[] keyStack;
+    private transient MoveGenerator generator;
+    // Reused by validMoves, so asking for one piece's moves only allocates the returned list
+    private transient MoveList pieceMoves;
+    private transient GameStatus status;
+    private transient long statusKey;
+    private transient int statusPly;
+    private transient int statusClock;
+    private transient MoveHistory history;
 
     public ChessGame() {
         board = new ChessBoard();
         teamTurn = TeamColor.WHITE;
-        canBlackKingsideCastle = true;
-        canWhiteKingsideCastle = true;
-        canBlackQueensideCastle = true;
-        canWhiteQueensideCastle = true;
+        castlingRights = ALL_CASTLING_RIGHTS;
+        enPassantSquare = ChessBoard.NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
         gameOver = false;
+        undoStack = new long[64];
+        keyStack = new long[64];
+        generator = new MoveGenerator();
+        pieceMoves = new MoveList();
+        history = new MoveHistory();
         board.resetBoard();
     }
 
+    /**
+     * Creates an independent copy of a game, including the moves that can be
+     * taken back with {@link #undoMove()} and the move history
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard(other.board);
+        teamTurn = other.teamTurn;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        gameOver = other.gameOver;
+        resigned = other.resigned;
+        undoStack = other.undoStack.clone();
+        undoCount = other.undoCount;
+        keyStack = other.keyStack.clone();
+        generator = new MoveGenerator();
+        pieceMoves = new MoveList();
+        history = new MoveHistory(other.history);
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -58,77 +156,73 @@ public class ChessGame {
     }
 
     /**
-     * Gets a valid moves for a piece at the given location
+     * Gets the legal moves for the piece at the given location. Only that
+     * piece's moves are generated, into a list the game reuses.
      *
      * @param startPosition the piece to get valid moves for
-     * @return Set of valid moves for requested piece, or null if no piece at
-     *         startPosition
+     * @return a new list of the piece's legal moves, empty if there is no piece
+     *         at startPosition
+     * @throws IllegalArgumentException if startPosition is off the board
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        HashSet<ChessMove> allowedMoves = new HashSet<ChessMove>();
+        ArrayList<ChessMove> allowedMoves = new ArrayList<>();
         ChessPiece piece = board.getPiece(startPosition);
         if (piece == null) {
             return allowedMoves;
         }
-        Collection<ChessMove> moves = piece.pieceMoves(board, startPosition);
-        int curRow = startPosition.getRow();
-        int curCol = startPosition.getColumn();
-        int direction = (piece.getTeamColor() == TeamColor.WHITE) ? 1 : -1;
-
-        // En passant
-        if (enPassantLocation != null) {
-            int enPassantRow = enPassantLocation.getRow();
-            int enPassantCol = enPassantLocation.getColumn();
-            if (piece.getPieceType() == PieceType.PAWN && enPassantRow == curRow + direction
-                    && (enPassantCol == curCol - 1 || enPassantCol == curCol + 1)) {
-                ChessMove enPassantMove = new ChessMove(startPosition, enPassantLocation);
-                moves.add(enPassantMove);
-            }
+        pieceMoves.clear();
+        moveGenerator(piece.getTeamColor()).generate(1L << ChessBoard.squareIndex(startPosition), pieceMoves);
+        for (int i = 0; i < pieceMoves.size(); i++) {
+            allowedMoves.add(EncodedMove.toChessMove(pieceMoves.get(i)));
         }
+        return allowedMoves;
+    }
 
-        // Castling
-        if (piece.getPieceType() == PieceType.KING) {
-            if (piece.getTeamColor() == TeamColor.WHITE && board.getPiece(new ChessPosition(1, 5)) != null
-                    && board.getPiece(new ChessPosition(1, 5)).getPieceType().equals(PieceType.KING)) {
-                if (canWhiteKingsideCastle && board.getPiece(new ChessPosition(1, 8)) != null
-                        && board.getPiece(new ChessPosition(1, 8)).getPieceType().equals(PieceType.ROOK)) {
-                    moves.add(new ChessMove(startPosition, new ChessPosition(1, 7)));
-                }
-                if (canWhiteQueensideCastle && board.getPiece(new ChessPosition(1, 1)) != null
-                        && board.getPiece(new ChessPosition(1, 1)).getPieceType().equals(PieceType.ROOK)) {
-                    moves.add(new ChessMove(startPosition, new ChessPosition(1, 3)));
-                }
-            }
-            else if (board.getPiece(new ChessPosition(8, 5)) != null
-                    && board.getPiece(new ChessPosition(8, 5)).getPieceType().equals(PieceType.KING)) {
-                if (canBlackKingsideCastle && board.getPiece(new ChessPosition(8, 8)) != null
-                        && board.getPiece(new ChessPosition(8, 8)).getPieceType().equals(PieceType.ROOK)) {
-                    moves.add(new ChessMove(startPosition, new ChessPosition(8, 7)));
-                }
-                if (canBlackQueensideCastle && board.getPiece(new ChessPosition(8, 1)) != null
-                        && board.getPiece(new ChessPosition(8, 1)).getPieceType().equals(PieceType.ROOK)) {
-                    moves.add(new ChessMove(startPosition, new ChessPosition(8, 3)));
-                }
-            }
-        }
+    /**
+     * Generates every legal move for the team whose turn it is, encoded with
+     * {@link EncodedMove}. Reusing the same list between calls generates moves
+     * without allocating.
+     *
+     * @param moves the list to fill; it is cleared first
+     */
+    public void generateLegalMoves(MoveList moves) {
+        moves.clear();
+        moveGenerator(teamTurn).generate(-1L, moves);
+    }
 
-        for (ChessMove move : moves) {
-            if (isValidMove(move)) {
-                allowedMoves.add(move);
-            }
+    /**
+     * Checks whether a move is legal for the team whose turn it is. Only the given
+     * move is checked, so this is much cheaper than searching
+     * {@link #validMoves(ChessPosition)} for it.
+     *
+     * @param move the move to check
+     * @return True if the move can be played
+     */
+    public boolean isLegal(ChessMove move) {
+        return isLegal(move, teamTurn);
+    }
+
+    private boolean isLegal(ChessMove move, TeamColor color) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (!start.isOnBoard() || !end.isOnBoard()) {
+            return false;
         }
-        return allowedMoves;
+        return moveGenerator(color).isLegal(ChessBoard.squareIndex(start), ChessBoard.squareIndex(end),
+                move.getPromotionPiece());
     }
 
     /**
-     * Makes a move in a chess game
+     * Makes a move in a chess game, recording it in the {@link #getMoveHistory()
+     * move history}
      *
      * @param move chess move to preform
+     * @return the status of the game for the team that moves next
      * @throws InvalidMoveException if move is invalid
      */
-    public void makeMove(ChessMove move) throws InvalidMoveException {
+    public GameStatus makeMove(ChessMove move) throws InvalidMoveException {
         ChessPiece piece = board.getPiece(move.getStartPosition());
-        if (piece == null || !validMoves(move.getStartPosition()).contains(move)) {
+        if (piece == null || !isLegal(move, piece.getTeamColor())) {
             throw new InvalidMoveException("That move is not allowed!");
         }
         TeamColor color = piece.getTeamColor();
@@ -136,90 +230,171 @@ public class ChessGame {
             throw new InvalidMoveException("It is not your turn!");
         }
 
-        int startRow = (piece.getTeamColor() == TeamColor.WHITE) ? 2 : 7;
-        int direction = (piece.getTeamColor() == TeamColor.WHITE) ? 1 : -1;
+        // isLegal left the generator set up for this team, as San needs
+        int encoded = withFlags(move);
+        String san = San.format(board, generator, encoded);
+        GameSnapshot start = history.isEmpty() ? snapshot() : null;
+        doMove(encoded);
+        GameStatus status = getStatus();
+        history.add(start, encoded, san + San.suffix(status, isInCheck(teamTurn)), undoCount - 1);
+        return status;
+    }
+
+    /**
+     * Encodes a legal move with its capture, en passant and castling flags
+     */
+    private int withFlags(ChessMove move) {
+        int from = ChessBoard.squareIndex(move.getStartPosition());
+        int to = ChessBoard.squareIndex(move.getEndPosition());
+        PieceType type = board.getPiece(from).getPieceType();
+        int flags = 0;
+        if (board.getPiece(to) != null) {
+            flags |= EncodedMove.CAPTURE;
+        }
+        else if (type == PieceType.PAWN && to == enPassantSquare) {
+            flags |= EncodedMove.CAPTURE | EncodedMove.EN_PASSANT;
+        }
+        else if (type == PieceType.KING && Math.abs(to - from) == 2) {
+            flags |= EncodedMove.CASTLING;
+        }
+        return EncodedMove.encode(from, to, move.getPromotionPiece(), flags);
+    }
+
+    /**
+     * Plays a move on the board without checking that it is legal, recording
+     * what is needed to take it back with {@link #undoMove()}. Handles en
+     * passant captures, castling, promotion, castling rights, the en passant
+     * square and the move counters, then passes the turn to the other team.
+     *
+     * @param move a pseudo-legal move for the piece on its start square
+     */
+    public void doMove(ChessMove move) {
+        doMove(EncodedMove.encode(move));
+    }
+
+    /**
+     * Plays an encoded move the same way as {@link #doMove(ChessMove)}, without
+     * allocating. Only the squares and promotion piece are read, so moves
+     * encoded without flags work too.
+     *
+     * @param move a pseudo-legal move encoded with {@link EncodedMove}
+     */
+    public void doMove(int move) {
+        int from = EncodedMove.from(move);
+        int to = EncodedMove.to(move);
+        PieceType promotion = EncodedMove.promotion(move);
+        ChessPiece piece = board.getPiece(from);
+        ChessPiece captured = board.getPiece(to);
+        TeamColor color = piece.getTeamColor();
+        int epSquare = enPassantSquare;
 
         // Handle en passant capture
-        if (piece.getPieceType() == PieceType.PAWN && enPassantLocation != null
-                && move.getEndPosition().equals(enPassantLocation)) {
-            int captureRow = move.getStartPosition().getRow();
-            int captureCol = enPassantLocation.getColumn();
-            board.addPiece(new ChessPosition(captureRow, captureCol), null);
+        int captureSquare = to;
+        if (piece.getPieceType() == PieceType.PAWN && to == epSquare) {
+            captureSquare = (from & ~7) | (to & 7);
+            captured = board.getPiece(captureSquare);
+            board.addPiece(captureSquare, null);
         }
 
-        board.addPiece(move.getStartPosition(), null);
-        if (move.getPromotionPiece() != null) {
-            piece = new ChessPiece(color, move.getPromotionPiece());
+        pushUndo(from, to, piece, captured, epSquare);
+
+        board.addPiece(from, null);
+        if (promotion != null) {
+            board.addPiece(to, ChessPiece.of(color, promotion));
+        }
+        else {
+            board.addPiece(to, piece);
         }
-        board.addPiece(move.getEndPosition(), piece);
 
         // Set en passant location
-        if (piece.getPieceType() == PieceType.PAWN && move.getStartPosition().getRow() == startRow
-                && move.getEndPosition().getRow() == startRow + direction * 2) {
-            enPassantLocation = new ChessPosition(move.getEndPosition().getRow() - direction,
-                    move.getEndPosition().getColumn());
+        if (piece.getPieceType() == PieceType.PAWN && Math.abs(to - from) == 16) {
+            enPassantSquare = (from + to) / 2;
         }
         else {
-            enPassantLocation = null;
-        }
-
-        ChessPosition startPosition = move.getStartPosition();
-        ChessPosition endPosition = move.getEndPosition();
-        boolean isWhite = piece.getTeamColor() == TeamColor.WHITE;
-        ChessPosition kingStartPosition = isWhite ? new ChessPosition(1, 5) : new ChessPosition(8, 5);
-        ChessPosition kingsideKingEndPosition = isWhite ? new ChessPosition(1, 7) : new ChessPosition(8, 7);
-        ChessPosition queensideKingEndPosition = isWhite ? new ChessPosition(1, 3) : new ChessPosition(8, 3);
-        ChessPosition kingsideRookStartPosition = isWhite ? new ChessPosition(1, 8) : new ChessPosition(8, 8);
-        ChessPosition queensideRookStartPosition = isWhite ? new ChessPosition(1, 1) : new ChessPosition(8, 1);
-        ChessPosition kingsideRookEndPosition = isWhite ? new ChessPosition(1, 6) : new ChessPosition(8, 6);
-        ChessPosition queensideRookEndPosition = isWhite ? new ChessPosition(1, 4) : new ChessPosition(8, 4);
-
-        if (startPosition.equals(kingStartPosition)) {
-            if (isWhite) {
-                canWhiteKingsideCastle = false;
-                canWhiteQueensideCastle = false;
-            }
-            else {
-                canBlackKingsideCastle = false;
-                canBlackQueensideCastle = false;
-            }
+            enPassantSquare = ChessBoard.NO_SQUARE;
         }
-        else if (startPosition.equals(kingsideRookStartPosition)) {
-            if (isWhite) {
-                canWhiteKingsideCastle = false;
-            }
-            else {
-                canBlackKingsideCastle = false;
-            }
+
+        // Handle castling by moving the rook
+        if (piece.getPieceType() == PieceType.KING && Math.abs(to - from) == 2) {
+            int rookFrom = (to > from) ? from + 3 : from - 4;
+            int rookTo = (from + to) / 2;
+            board.addPiece(rookTo, board.getPiece(rookFrom));
+            board.addPiece(rookFrom, null);
         }
-        else if (startPosition.equals(queensideRookStartPosition)) {
-            if (isWhite) {
-                canWhiteQueensideCastle = false;
-            }
-            else {
-                canBlackQueensideCastle = false;
-            }
+
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        if (piece.getPieceType() == PieceType.PAWN || captured != null) {
+            halfmoveClock = 0;
+        }
+        else {
+            halfmoveClock++;
         }
+        if (color == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        teamTurn = teamTurn.opposite();
+    }
 
-        // Handle castling
-        if (piece.getPieceType() == PieceType.KING) {
-            if (startPosition.equals(kingStartPosition)) {
-                if (endPosition.equals(kingsideKingEndPosition)) {
-                    // Move the rook for kingside castling
-                    ChessPiece rook = board.getPiece(kingsideRookStartPosition);
-                    board.addPiece(kingsideRookStartPosition, null);
-                    board.addPiece(kingsideRookEndPosition, rook);
-                }
-                else if (endPosition.equals(queensideKingEndPosition)) {
-                    // Move the rook for queenside castling
-                    ChessPiece rook = board.getPiece(queensideRookStartPosition);
-                    board.addPiece(queensideRookStartPosition, null);
-                    board.addPiece(queensideRookEndPosition, rook);
-                }
+    /**
+     * Takes back the last move played with {@link #doMove(int)} or
+     * {@link #makeMove(ChessMove)}, restoring the board, castling rights, en
+     * passant square, move counters and turn
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void undoMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("There is no move to undo");
+        }
+        long record = undoStack[--undoCount];
+        history.undo(undoCount);
+        int from = (int) (record >>> UNDO_FROM_SHIFT) & 0x3F;
+        int to = (int) (record >>> UNDO_TO_SHIFT) & 0x3F;
+        ChessPiece piece = ChessPiece.of((int) (record >>> UNDO_MOVED_SHIFT) & 0xF);
+        int capturedCode = (int) (record >>> UNDO_CAPTURED_SHIFT) & 0xF;
+        int epCode = (int) (record >>> UNDO_EN_PASSANT_SHIFT) & 0x7F;
+
+        teamTurn = teamTurn.opposite();
+        castlingRights = (int) (record >>> UNDO_CASTLING_SHIFT) & 0xF;
+        enPassantSquare = epCode - 1;
+        halfmoveClock = (int) (record >>> UNDO_HALFMOVE_SHIFT) & 0xFFFF;
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+
+        // Put the rook back after castling
+        if (piece.getPieceType() == PieceType.KING && Math.abs(to - from) == 2) {
+            int rookFrom = (to > from) ? from + 3 : from - 4;
+            int rookTo = (from + to) / 2;
+            board.addPiece(rookFrom, board.getPiece(rookTo));
+            board.addPiece(rookTo, null);
+        }
+
+        // Restores the pawn if the move was a promotion
+        board.addPiece(from, piece);
+        board.addPiece(to, null);
+        if (capturedCode != 0) {
+            int captureSquare = to;
+            if (piece.getPieceType() == PieceType.PAWN && to == epCode - 1) {
+                captureSquare = (from & ~7) | (to & 7);
             }
+            board.addPiece(captureSquare, ChessPiece.of(capturedCode - 1));
         }
+    }
 
-        teamTurn = teamTurn.opposite();
+    private void pushUndo(int from, int to, ChessPiece piece, ChessPiece captured, int epSquare) {
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+            keyStack = Arrays.copyOf(keyStack, undoCount * 2);
+        }
+        keyStack[undoCount] = positionKey();
+        int capturedCode = (captured == null) ? 0
+                : ChessBoard.pieceIndex(captured.getTeamColor(), captured.getPieceType()) + 1;
+        undoStack[undoCount++] = ((long) from << UNDO_FROM_SHIFT) | ((long) to << UNDO_TO_SHIFT)
+                | ((long) ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()) << UNDO_MOVED_SHIFT)
+                | ((long) capturedCode << UNDO_CAPTURED_SHIFT) | ((long) castlingRights << UNDO_CASTLING_SHIFT)
+                | ((long) (epSquare + 1) << UNDO_EN_PASSANT_SHIFT)
+                | ((long) Math.min(halfmoveClock, 0xFFFF) << UNDO_HALFMOVE_SHIFT);
     }
 
     /**
@@ -229,54 +404,27 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = getKingPosition(teamColor);
-
-        for (int i = 1; i <= 8; ++i) {
-            for (int j = 1; j <= 8; ++j) {
-                ChessPosition position = new ChessPosition(i, j);
-                if (isOpponentPieceThreateningKing(position, teamColor, kingPosition)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean isOpponentPieceThreateningKing(ChessPosition position, TeamColor teamColor,
-            ChessPosition kingPosition) {
-        ChessPiece piece = board.getPiece(position);
-        if (piece == null || piece.getTeamColor().opposite() != teamColor) {
+        int kingSquare = board.getKingSquare(teamColor);
+        if (kingSquare == ChessBoard.NO_SQUARE) {
             return false;
         }
-
-        for (ChessMove move : piece.pieceMoves(board, position)) {
-            if (move.getEndPosition().equals(kingPosition)) {
-                return true;
-            }
-        }
-        return false;
+        return MoveGenerator.attackersTo(board, kingSquare, teamColor.opposite(), board.getOccupied()) != 0;
     }
 
     /**
-     * Determines if the given team has any valid moves.
+     * Determines if a square is attacked by any piece of the given team. Instead
+     * of generating every attacker's moves, this looks outward from the square
+     * with each piece type's attack pattern and checks whether a matching enemy
+     * piece is standing there.
      *
-     * @param teamColor which team to check for valid moves
-     * @return True if the specified team has any valid moves, otherwise false
-     */
-    private boolean hasValidMoves(TeamColor teamColor) {
-        for (int i = 1; i <= 8; ++i) {
-            for (int j = 1; j <= 8; ++j) {
-                ChessPosition position = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    Collection<ChessMove> moves = validMoves(position);
-                    if (moves.size() > 0) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+     * @param position the square to check
+     * @param byColor  which team to look for attackers from
+     * @return True if at least one piece of that team attacks the square
+     * @throws IllegalArgumentException if the position is off the board
+     */
+    public boolean isSquareAttacked(ChessPosition position, TeamColor byColor) {
+        int square = ChessBoard.checkedIndex(position);
+        return MoveGenerator.attackersTo(board, square, byColor, board.getOccupied()) != 0;
     }
 
     /**
@@ -286,10 +434,14 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) {
+        if (teamColor == teamTurn) {
+            return getStatus() == GameStatus.CHECKMATE;
+        }
+        MoveGenerator generator = moveGenerator(teamColor);
+        if (!generator.inCheck()) {
             return false;
         }
-        if (hasValidMoves(teamColor)) {
+        if (generator.hasMoves()) {
             return false;
         }
         gameOver = true;
@@ -304,16 +456,128 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
+        if (teamColor == teamTurn) {
+            return getStatus() == GameStatus.STALEMATE;
+        }
+        MoveGenerator generator = moveGenerator(teamColor);
+        if (generator.inCheck()) {
             return false;
         }
-        if (hasValidMoves(teamColor)) {
+        if (generator.hasMoves()) {
             return false;
         }
         gameOver = true;
         return true;
     }
 
+    /**
+     * Gets the status of the game for the team whose turn it is. Check and
+     * legal moves are found in a single pass, and the result is cached until the
+     * position changes, so asking again for the same position is free.
+     * <p>
+     * When the team has a legal move, the game is drawn automatically on
+     * insufficient material, after 50 moves by each side with no capture or pawn
+     * move, or when the same position comes up for the third time.
+     *
+     * @return the game status
+     */
+    public GameStatus getStatus() {
+        long key = positionKey();
+        if (status != null && statusKey == key && statusPly == undoCount && statusClock == halfmoveClock) {
+            return status;
+        }
+        MoveGenerator generator = moveGenerator(teamTurn);
+        boolean inCheck = generator.inCheck();
+        if (!generator.hasMoves()) {
+            status = inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        else if (hasInsufficientMaterial()) {
+            status = GameStatus.DRAW_INSUFFICIENT_MATERIAL;
+        }
+        else if (halfmoveClock >= 100) {
+            status = GameStatus.DRAW_FIFTY_MOVES;
+        }
+        else if (repetitions(key) >= 3) {
+            status = GameStatus.DRAW_REPETITION;
+        }
+        else {
+            status = inCheck ? GameStatus.CHECK : GameStatus.NORMAL;
+        }
+        if (status.isGameOver()) {
+            gameOver = true;
+        }
+        statusKey = key;
+        statusPly = undoCount;
+        statusClock = halfmoveClock;
+        return status;
+    }
+
+    /**
+     * Determines if neither team has enough pieces left to checkmate: only kings,
+     * plus at most one knight or bishop, or any number of bishops all on squares
+     * of the same color
+     *
+     * @return True if checkmate is impossible
+     */
+    public boolean hasInsufficientMaterial() {
+        long heavy = 0;
+        long knights = 0;
+        long bishops = 0;
+        for (TeamColor color : TeamColor.values()) {
+            heavy |= board.getPieces(color, PieceType.PAWN) | board.getPieces(color, PieceType.ROOK)
+                    | board.getPieces(color, PieceType.QUEEN);
+            knights |= board.getPieces(color, PieceType.KNIGHT);
+            bishops |= board.getPieces(color, PieceType.BISHOP);
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & DARK_SQUARES) == 0 || (bishops & ~DARK_SQUARES) == 0);
+    }
+
+    /**
+     * Checks whether the current position has come up before. Engines treat
+     * this as a draw, since repeating it again cannot gain anything.
+     *
+     * @return True if the position has been reached at least twice
+     */
+    public boolean isRepetition() {
+        return repetitions(positionKey()) >= 2;
+    }
+
+    /**
+     * Counts how many times a position has come up, including now. Only moves
+     * since the last capture or pawn move are searched, since none before it can
+     * repeat, and only every second one, since the same team must be to move.
+     *
+     * @param key the current {@link #positionKey()}
+     * @return the number of times the position has been reached
+     */
+    private int repetitions(long key) {
+        int count = 1;
+        int oldest = Math.max(0, undoCount - halfmoveClock);
+        for (int i = undoCount - 2; i >= oldest; i -= 2) {
+            if (keyStack[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Creates a legal move generator for the given team in the current position,
+     * which finds checks and pins once for all the moves it generates
+     *
+     * @param teamColor which team to generate moves for
+     * @return the move generator
+     */
+    private MoveGenerator moveGenerator(TeamColor teamColor) {
+        return generator.reset(board, teamColor, castlingRights, enPassantSquare);
+    }
+
     /**
      * Sets this game's chessboard with a given board
      *
@@ -321,10 +585,12 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
-        canBlackKingsideCastle = true;
-        canWhiteKingsideCastle = true;
-        canBlackQueensideCastle = true;
-        canWhiteQueensideCastle = true;
+        castlingRights = ALL_CASTLING_RIGHTS;
+        enPassantSquare = ChessBoard.NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoCount = 0;
+        history.clear();
     }
 
     /**
@@ -336,6 +602,153 @@ public class ChessGame {
         return board;
     }
 
+    /**
+     * Plays a move from a stored {@link MoveHistory}, recording it again along
+     * with the undo and repetition history that storage leaves out
+     *
+     * @param move the encoded move
+     * @param san  the move in Standard Algebraic Notation
+     */
+    void replayMove(int move, String san) {
+        ChessPiece piece = board.getPiece(EncodedMove.from(move));
+        if (piece == null || piece.getTeamColor() != teamTurn) {
+            throw new IllegalArgumentException(String.format("Move %s cannot be replayed", EncodedMove.toString(move)));
+        }
+        GameSnapshot start = history.isEmpty() ? snapshot() : null;
+        doMove(move);
+        history.add(start, move, san, undoCount - 1);
+    }
+
+    /**
+     * Gets the moves played with {@link #makeMove(ChessMove)} since the position
+     * was last set. Moves played with {@link #doMove(int)} are not recorded.
+     *
+     * @return the move history, which follows {@link #undoMove()}
+     */
+    public MoveHistory getMoveHistory() {
+        return history;
+    }
+
+    /**
+     * Gets the castling rights as the bits defined by {@link Zobrist}
+     *
+     * @return the castling rights that have not been lost yet
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @param castlingRights the castling rights, as the bits defined by
+     *                       {@link Zobrist}
+     */
+    void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * @param enPassantSquare the square a pawn can capture en passant onto, or
+     *                        {@link ChessBoard#NO_SQUARE}
+     */
+    void setEnPassantSquare(int enPassantSquare) {
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    /**
+     * @param halfmoveClock moves since the last capture or pawn move
+     */
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * @param fullmoveNumber the number of the current full move, starting at 1
+     */
+    void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Gets the number of moves played since the last capture or pawn move, as
+     * used by the fifty-move rule
+     *
+     * @return the halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Gets the number of the current full move. It starts at 1 and goes up after
+     * each black move.
+     *
+     * @return the fullmove number
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation
+     *
+     * @return the FEN string, including the move counters
+     */
+    public String toFen() {
+        return Fen.format(this);
+    }
+
+    /**
+     * Takes an immutable copy of the current position, which other threads can
+     * read while this game goes on changing. The snapshot must be taken by the
+     * thread that changes the game, or while it is not changing.
+     *
+     * @return the snapshot
+     */
+    public GameSnapshot snapshot() {
+        return new GameSnapshot(this);
+    }
+
+    /**
+     * Creates a game from a position in Forsyth-Edwards Notation
+     *
+     * @param fen the FEN string; the two move counters may be left off
+     * @return a game in that position
+     * @throws IllegalArgumentException if the FEN is not valid
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the en passant target square, or {@link ChessBoard#NO_SQUARE}
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Gets a 64-bit Zobrist key identifying this position. The key covers the
+     * pieces, side to move, castling rights and en passant file (only when a pawn
+     * can actually capture en passant). The piece part is kept up to date by the
+     * board as moves are made, so this does not scan the board.
+     *
+     * @return the position key
+     */
+    public long positionKey() {
+        long key = board.getZobristKey() ^ Zobrist.castling(getCastlingRights());
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        if (enPassantSquare != ChessBoard.NO_SQUARE) {
+            long capturers = AttackTables.pawnAttacks(teamTurn.opposite(), enPassantSquare)
+                    & board.getPieces(teamTurn, PieceType.PAWN);
+            if (capturers != 0) {
+                key ^= Zobrist.enPassant(enPassantSquare % 8);
+            }
+        }
+        return key;
+    }
+
     public boolean getGameOver() {
         return gameOver;
     }
@@ -344,13 +757,30 @@ public class ChessGame {
         this.gameOver = gameOver;
     }
 
+    /**
+     * Ends the game with a team resigning
+     *
+     * @param team the team that resigned
+     */
+    public void resign(TeamColor team) {
+        resigned = team;
+        gameOver = true;
+    }
+
+    /**
+     * @return the team that resigned, or null if neither has
+     */
+    public TeamColor getResigned() {
+        return resigned;
+    }
+
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((board == null) ? 0 : board.hashCode());
-        result = prime * result + ((teamTurn == null) ? 0 : teamTurn.hashCode());
-        return result;
+        long key = (board == null) ? 0 : board.getZobristKey();
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        return Long.hashCode(key);
     }
 
     @Override
@@ -378,84 +808,4 @@ public class ChessGame {
         }
         return true;
     }
-
-    /**
-     * Gets the location of the king of the specified team
-     *
-     * @param teamColor which team's king to get
-     * @return the location of the king
-     */
-    private ChessPosition getKingPosition(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition currentPosition = new ChessPosition(row, col);
-                if (board.getPiece(currentPosition) != null
-                        && board.getPiece(currentPosition).getTeamColor() == teamColor
-                        && board.getPiece(currentPosition).getPieceType() == ChessPiece.PieceType.KING) {
-                    return currentPosition;
-                }
-            }
-        }
-        // This is literally just a random number cause the stupid tests I have to pass
-        // don't like following good design practices and refuse to let me implement
-        // proper error checking
-        return new ChessPosition(422, 63);
-    }
-
-    /**
-     * Checks if a single move is allowed
-     * 
-     * @param move the move to check
-     * @return Boolean (true if is valid move, else false)
-     */
-    private boolean isValidMove(ChessMove move) {
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        if (piece == null) {
-            return false;
-        }
-
-        ChessPosition startPosition = move.getStartPosition();
-        ChessPosition endPosition = move.getEndPosition();
-        int startRow = startPosition.getRow();
-        // int startCol = startPosition.getColumn();
-        boolean isWhite = piece.getTeamColor() == TeamColor.WHITE;
-        ChessPosition kingStartPosition = isWhite ? new ChessPosition(1, 5) : new ChessPosition(8, 5);
-        ChessPosition kingsideKingEndPosition = isWhite ? new ChessPosition(1, 7) : new ChessPosition(8, 7);
-        ChessPosition queensideKingEndPosition = isWhite ? new ChessPosition(1, 3) : new ChessPosition(8, 3);
-
-        if (piece.getPieceType() == ChessPiece.PieceType.KING && startPosition.equals(kingStartPosition)
-                && (endPosition.equals(kingsideKingEndPosition))) {
-            if (isInCheck(piece.getTeamColor())) {
-                return false;
-            }
-            ChessPosition position = new ChessPosition(startRow, 6);
-            if (board.getPiece(position) != null || board.getPiece(new ChessPosition(startRow, 7)) != null
-                    || !isValidMove(new ChessMove(startPosition, position))) {
-                return false;
-            }
-        }
-        else if (piece.getPieceType() == ChessPiece.PieceType.KING && startPosition.equals(kingStartPosition)
-                && (endPosition.equals(queensideKingEndPosition))) {
-            if (isInCheck(piece.getTeamColor())) {
-                return false;
-            }
-            ChessPosition position1 = new ChessPosition(startRow, 4);
-            ChessPosition position2 = new ChessPosition(startRow, 2);
-            if (board.getPiece(position1) != null || board.getPiece(position2) != null
-                    || board.getPiece(new ChessPosition(startRow, 3)) != null
-                    || !isValidMove(new ChessMove(startPosition, position1))
-                    || !isValidMove(new ChessMove(startPosition, position2))) {
-                return false;
-            }
-        }
-
-        board.addPiece(move.getStartPosition(), null);
-
-        ChessPiece capturedPiece = board.getPiece(move.getEndPosition());
-        board.addPiece(move.getEndPosition(), piece);
-        boolean isValid = !isInCheck(piece.getTeamColor());
-        board.addPiece(move.getStartPosition(), piece);
-        board.addPiece(move.getEndPosition(), capturedPiece);
-        return isValid;
-    }
 }
@@ -0,0 +1,267 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.function.IntFunction;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Packs a game into compact bytes, for storage and for sending over the
+ * network: about 30 bytes for the position, plus about 8 for each move in its
+ * history, so a game of 100 moves takes about 800 bytes.
+ * <p>
+ * Version 2 layout, in {@link ByteBuffer} (big-endian) order:
+ * <ol>
+ * <li>1 byte: format version</li>
+ * <li>the current position:
+ * <ol>
+ * <li>8 bytes: bitboard of occupied squares</li>
+ * <li>one 4-bit piece code per occupied square, from a1 up to h8, two per
+ * byte with the first in the low bits; codes are
+ * {@link ChessBoard#pieceIndex(TeamColor, PieceType)}</li>
+ * <li>1 byte: bit 0 set when black is to move, bit 1 set when the game is
+ * over, bit 2 set when a team resigned and bit 3 when that was black, bits
+ * 4-7 the castling rights</li>
+ * <li>1 byte: en passant square plus one, or 0 for none</li>
+ * <li>2 bytes each: halfmove clock and fullmove number, unsigned</li>
+ * </ol>
+ * </li>
+ * <li>2 bytes: number of moves in the {@link MoveHistory}, unsigned</li>
+ * <li>if there are any moves, the position before the first one, laid out as
+ * above, then for each move 3 bytes holding the {@link EncodedMove} with its
+ * flags, 1 byte holding the length of its Standard Algebraic Notation and the
+ * notation itself in ASCII</li>
+ * </ol>
+ * Version 1 is the same without the move history and can still be decoded.
+ * When there is a move history, decoding replays it from the first position,
+ * which restores the undo history and what is needed to find repetitions.
+ * The price is that an encoded game grows with its history, by 4 bytes plus
+ * the notation for every move, where version 1 stayed the same size.
+ */
+public final class ChessGameCodec {
+    /**
+     * The format version written by {@link #encode(ChessGame, ByteBuffer)}
+     */
+    public static final byte VERSION = 2;
+    /**
+     * The most bytes a game reached by legal play can take when it has no move
+     * history, with all 32 pieces on the board
+     */
+    public static final int MAX_ENCODED_SIZE = 1 + 8 + 16 + 1 + 1 + 2 + 2 + 2;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int GAME_OVER = 2;
+    private static final int RESIGNED = 4;
+    private static final int BLACK_RESIGNED = 8;
+    private static final int CASTLING_SHIFT = 4;
+
+    private ChessGameCodec() {}
+
+    /**
+     * Writes a game at the buffer's position, advancing it
+     *
+     * @param game   the game to write
+     * @param buffer the buffer to write to, with at least
+     *               {@link #encodedSize(ChessGame)} bytes remaining
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room
+     */
+    public static void encode(ChessGame game, ByteBuffer buffer) {
+        buffer.put(VERSION);
+        encodePosition(game, buffer);
+
+        MoveHistory history = game.getMoveHistory();
+        buffer.putChar((char) history.size());
+        if (history.isEmpty()) {
+            return;
+        }
+        // The position was captured when the first move was made, so nothing is parsed or rebuilt here
+        encodePosition(history.getStart(), buffer);
+        for (int i = 0; i < history.size(); i++) {
+            int move = history.getMove(i);
+            buffer.put((byte) (move >>> 16)).putChar((char) move);
+            String san = history.getSan(i);
+            buffer.put((byte) san.length());
+            for (int c = 0; c < san.length(); c++) {
+                buffer.put((byte) san.charAt(c));
+            }
+        }
+    }
+
+    private static void encodePosition(ChessGame game, ByteBuffer buffer) {
+        ChessBoard board = game.getBoard();
+        int flags = flags(game.getTeamTurn(), game.getGameOver(), game.getResigned(), game.getCastlingRights());
+        encodePosition(board.getOccupied(), board::getPiece, flags, game.getEnPassantSquare(),
+                game.getHalfmoveClock(), game.getFullmoveNumber(), buffer);
+    }
+
+    private static void encodePosition(GameSnapshot snapshot, ByteBuffer buffer) {
+        int flags = flags(snapshot.getTeamTurn(), snapshot.getGameOver(), snapshot.getResigned(),
+                snapshot.getCastlingRights());
+        encodePosition(snapshot.getOccupied(), snapshot::getPiece, flags, snapshot.getEnPassantSquare(),
+                snapshot.getHalfmoveClock(), snapshot.getFullmoveNumber(), buffer);
+    }
+
+    private static int flags(TeamColor teamTurn, boolean gameOver, TeamColor resigned, int castlingRights) {
+        int flags = castlingRights << CASTLING_SHIFT;
+        flags |= (teamTurn == TeamColor.BLACK) ? BLACK_TO_MOVE : 0;
+        flags |= gameOver ? GAME_OVER : 0;
+        if (resigned != null) {
+            flags |= (resigned == TeamColor.BLACK) ? RESIGNED | BLACK_RESIGNED : RESIGNED;
+        }
+        return flags;
+    }
+
+    private static void encodePosition(long occupied, IntFunction<ChessPiece> pieces, int flags, int enPassantSquare,
+            int halfmoveClock, int fullmoveNumber, ByteBuffer buffer) {
+        buffer.putLong(occupied);
+
+        int packed = 0;
+        boolean half = false;
+        for (long remaining = occupied; remaining != 0; remaining &= remaining - 1) {
+            ChessPiece piece = pieces.apply(Long.numberOfTrailingZeros(remaining));
+            int code = ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+            if (half) {
+                buffer.put((byte) (packed | (code << 4)));
+            }
+            else {
+                packed = code;
+            }
+            half = !half;
+        }
+        if (half) {
+            buffer.put((byte) packed);
+        }
+
+        buffer.put((byte) flags);
+        buffer.put((byte) (enPassantSquare + 1));
+        buffer.putChar((char) Math.min(halfmoveClock, Character.MAX_VALUE));
+        buffer.putChar((char) Math.min(fullmoveNumber, Character.MAX_VALUE));
+    }
+
+    /**
+     * Reads a game from the buffer's position, advancing it
+     *
+     * @param buffer the buffer to read from
+     * @return the decoded game
+     * @throws IllegalArgumentException if the data is not an encoded game or was
+     *                                  written by an unknown version
+     */
+    public static ChessGame decode(ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != 1 && version != VERSION) {
+                throw new IllegalArgumentException(String.format("Unknown game encoding version %d", version));
+            }
+            ChessGame game = decodePosition(buffer);
+            if (version == 1) {
+                return game;
+            }
+
+            int moves = buffer.getChar();
+            if (moves == 0) {
+                return game;
+            }
+            ChessGame replayed = decodePosition(buffer);
+            for (int i = 0; i < moves; i++) {
+                int move = ((buffer.get() & 0xFF) << 16) | buffer.getChar();
+                char[] san = new char[buffer.get() & 0xFF];
+                for (int c = 0; c < san.length; c++) {
+                    san[c] = (char) (buffer.get() & 0xFF);
+                }
+                replayed.replayMove(move, new String(san));
+            }
+            if (replayed.positionKey() != game.positionKey()) {
+                throw new IllegalArgumentException("Move history does not lead to the encoded position");
+            }
+            replayed.setGameOver(game.getGameOver());
+            if (game.getResigned() != null) {
+                replayed.resign(game.getResigned());
+            }
+            return replayed;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Encoded game is truncated", e);
+        }
+    }
+
+    private static ChessGame decodePosition(ByteBuffer buffer) {
+        long occupied = buffer.getLong();
+
+        ChessBoard board = new ChessBoard();
+        int packed = 0;
+        boolean half = false;
+        for (long remaining = occupied; remaining != 0; remaining &= remaining - 1) {
+            if (!half) {
+                packed = buffer.get();
+            }
+            int code = half ? (packed >>> 4) & 0xF : packed & 0xF;
+            if (code >= 12) {
+                throw new IllegalArgumentException(String.format("Bad piece code %d", code));
+            }
+            board.addPiece(Long.numberOfTrailingZeros(remaining), ChessPiece.of(code));
+            half = !half;
+        }
+
+        int flags = buffer.get() & 0xFF;
+        int enPassantSquare = (buffer.get() & 0xFF) - 1;
+        if (enPassantSquare >= 64) {
+            throw new IllegalArgumentException(String.format("Bad en passant square %d", enPassantSquare));
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(((flags & BLACK_TO_MOVE) != 0) ? TeamColor.BLACK : TeamColor.WHITE);
+        game.setGameOver((flags & GAME_OVER) != 0);
+        if ((flags & RESIGNED) != 0) {
+            game.resign(((flags & BLACK_RESIGNED) != 0) ? TeamColor.BLACK : TeamColor.WHITE);
+        }
+        game.setCastlingRights(flags >>> CASTLING_SHIFT);
+        game.setEnPassantSquare(enPassantSquare);
+        game.setHalfmoveClock(buffer.getChar());
+        game.setFullmoveNumber(buffer.getChar());
+        return game;
+    }
+
+    /**
+     * @param game a game
+     * @return how many bytes {@link #encode(ChessGame, ByteBuffer)} writes for it
+     */
+    public static int encodedSize(ChessGame game) {
+        MoveHistory history = game.getMoveHistory();
+        int size = 1 + positionSize(game.getBoard().getOccupied()) + 2;
+        if (history.isEmpty()) {
+            return size;
+        }
+        size += positionSize(history.getStart().getOccupied());
+        for (int i = 0; i < history.size(); i++) {
+            size += 3 + 1 + history.getSan(i).length();
+        }
+        return size;
+    }
+
+    private static int positionSize(long occupied) {
+        int pieces = Long.bitCount(occupied);
+        return 8 + (pieces + 1) / 2 + 1 + 1 + 2 + 2;
+    }
+
+    /**
+     * @param game the game to write
+     * @return the encoded game
+     */
+    public static byte[] toBytes(ChessGame game) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(game));
+        encode(game, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * @param bytes an encoded game
+     * @return the decoded game
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     */
+    public static ChessGame fromBytes(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+}
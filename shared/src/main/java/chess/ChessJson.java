@@ -0,0 +1,400 @@
+package chess;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import chess.ChessGame.TeamColor;
+
+/**
+ * JSON support for the chess classes, plus the {@link Gson} instance the
+ * client and server share for all their JSON.
+ * <p>
+ * Games are written as their FEN with a format version, such as
+ * {@code {"version":2,"fen":"rnbqkbnr/... w KQkq - 0 1","gameOver":false}},
+ * plus a {@code resigned} field naming the team if one resigned. Written this
+ * way, a game is the same size however long it has been played. That is what
+ * {@link #gson()} writes, for messages such as game lists and
+ * {@code LOAD_GAME} broadcasts. {@link #gsonWithHistory()} also writes the
+ * {@link MoveHistory} in {@code startFen}, {@code moves} and {@code san}
+ * fields, holding the position before the first move and the encoded moves and
+ * their notation in matching arrays; reading such a game replays the moves.
+ * Both instances read either form. A board on its own is written as the FEN
+ * piece placement and a piece as its FEN letter. Streaming adapters avoid
+ * reflection in both directions. A {@link GameSnapshot} is written like a game
+ * with no move history, so it can be read as either.
+ * <p>
+ * Version 1 is the original reflective layout with a nested
+ * {@code ChessPiece[8][8]} board, which has no version field. It can still be
+ * read, so games stored in that layout keep working, but a client that only
+ * understands version 1 cannot read version 2.
+ */
+public final class ChessJson {
+    /**
+     * The game format version written by the adapters
+     */
+    public static final int VERSION = 2;
+
+    private static final Gson GSON = register(new GsonBuilder()).create();
+    private static final Gson GSON_WITH_HISTORY = register(new GsonBuilder(), true).create();
+
+    private ChessJson() {}
+
+    /**
+     * Gets the shared Gson instance. Gson is thread-safe, so one instance can be
+     * used everywhere instead of building a new one for each message.
+     *
+     * @return Gson with the chess adapters registered
+     */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    /**
+     * Gets a shared Gson instance that also writes each game's move history, for
+     * callers that need to restore a game with its repetitions and notation
+     *
+     * @return Gson with the chess adapters registered
+     */
+    public static Gson gsonWithHistory() {
+        return GSON_WITH_HISTORY;
+    }
+
+    /**
+     * Registers the chess adapters on a builder, for callers that need their own
+     * Gson configuration. Games are written without their move history.
+     *
+     * @param builder the builder to add the adapters to
+     * @return the same builder
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return register(builder, false);
+    }
+
+    /**
+     * Registers the chess adapters on a builder
+     *
+     * @param builder the builder to add the adapters to
+     * @param history whether games are written with their move history
+     * @return the same builder
+     */
+    public static GsonBuilder register(GsonBuilder builder, boolean history) {
+        return builder.registerTypeAdapter(ChessGame.class, new GameAdapter(history).nullSafe())
+                .registerTypeAdapter(GameSnapshot.class, new SnapshotAdapter().nullSafe())
+                .registerTypeAdapter(ChessBoard.class, new BoardAdapter().nullSafe())
+                .registerTypeAdapter(ChessPiece.class, new PieceAdapter().nullSafe());
+    }
+
+    private static final class GameAdapter extends TypeAdapter<ChessGame> {
+        private final BoardAdapter boardAdapter = new BoardAdapter();
+        private final boolean history;
+
+        GameAdapter(boolean history) {
+            this.history = history;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            out.name("version").value(VERSION);
+            out.name("fen").value(game.toFen());
+            out.name("gameOver").value(game.getGameOver());
+            if (game.getResigned() != null) {
+                out.name("resigned").value(game.getResigned().name());
+            }
+            MoveHistory moves = game.getMoveHistory();
+            if (history && !moves.isEmpty()) {
+                out.name("startFen").value(moves.getStartFen());
+                out.name("moves").beginArray();
+                for (int i = 0; i < moves.size(); i++) {
+                    out.value(moves.getMove(i));
+                }
+                out.endArray();
+                out.name("san").beginArray();
+                for (int i = 0; i < moves.size(); i++) {
+                    out.value(moves.getSan(i));
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            int version = 1;
+            String fen = null;
+            boolean gameOver = false;
+            TeamColor resigned = null;
+            String startFen = null;
+            List<Integer> moves = new ArrayList<>();
+            List<String> san = new ArrayList<>();
+            // Version 1 fields
+            ChessBoard board = null;
+            TeamColor teamTurn = TeamColor.WHITE;
+            int castlingRights = 0;
+            int enPassantSquare = ChessBoard.NO_SQUARE;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                case "version":
+                    version = in.nextInt();
+                    break;
+                case "fen":
+                    fen = in.nextString();
+                    break;
+                case "gameOver":
+                    gameOver = in.nextBoolean();
+                    break;
+                case "resigned":
+                    resigned = TeamColor.valueOf(in.nextString());
+                    break;
+                case "startFen":
+                    startFen = in.nextString();
+                    break;
+                case "moves":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        moves.add(in.nextInt());
+                    }
+                    in.endArray();
+                    break;
+                case "san":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        san.add(in.nextString());
+                    }
+                    in.endArray();
+                    break;
+                case "board":
+                    board = boardAdapter.read(in);
+                    break;
+                case "teamTurn":
+                    teamTurn = TeamColor.valueOf(in.nextString());
+                    break;
+                case "canWhiteKingsideCastle":
+                    castlingRights |= in.nextBoolean() ? Zobrist.WHITE_KINGSIDE : 0;
+                    break;
+                case "canWhiteQueensideCastle":
+                    castlingRights |= in.nextBoolean() ? Zobrist.WHITE_QUEENSIDE : 0;
+                    break;
+                case "canBlackKingsideCastle":
+                    castlingRights |= in.nextBoolean() ? Zobrist.BLACK_KINGSIDE : 0;
+                    break;
+                case "canBlackQueensideCastle":
+                    castlingRights |= in.nextBoolean() ? Zobrist.BLACK_QUEENSIDE : 0;
+                    break;
+                case "enPassantLocation":
+                    enPassantSquare = readSquare(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+                }
+            }
+            in.endObject();
+
+            if (version > VERSION) {
+                throw new JsonParseException(String.format("Unsupported chess game version %d", version));
+            }
+            ChessGame game;
+            if (fen != null) {
+                try {
+                    game = ChessGame.fromFen(fen);
+                }
+                catch (IllegalArgumentException e) {
+                    throw new JsonParseException(e.getMessage(), e);
+                }
+            }
+            else {
+                game = new ChessGame();
+                if (board != null) {
+                    game.setBoard(board);
+                }
+                game.setTeamTurn(teamTurn);
+                game.setCastlingRights(castlingRights);
+                game.setEnPassantSquare(enPassantSquare);
+            }
+            game.setGameOver(gameOver);
+            if (resigned != null) {
+                game.resign(resigned);
+            }
+            if (moves.isEmpty()) {
+                return game;
+            }
+
+            // Replaying the moves restores the undo history and finds repetitions
+            if (moves.size() != san.size() || startFen == null) {
+                throw new JsonParseException("Move history is incomplete");
+            }
+            try {
+                ChessGame replayed = ChessGame.fromFen(startFen);
+                for (int i = 0; i < moves.size(); i++) {
+                    replayed.replayMove(moves.get(i), san.get(i));
+                }
+                if (replayed.positionKey() != game.positionKey()) {
+                    throw new JsonParseException("Move history does not lead to the game's position");
+                }
+                replayed.setGameOver(gameOver);
+                if (resigned != null) {
+                    replayed.resign(resigned);
+                }
+                return replayed;
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Reads a version 1 {@link ChessPosition}
+         */
+        private static int readSquare(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return ChessBoard.NO_SQUARE;
+            }
+            int row = 0;
+            int col = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                case "row":
+                    row = in.nextInt();
+                    break;
+                case "col":
+                    col = in.nextInt();
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+                }
+            }
+            in.endObject();
+            return ChessBoard.squareIndex(row, col);
+        }
+    }
+
+    private static final class SnapshotAdapter extends TypeAdapter<GameSnapshot> {
+        private final GameAdapter gameAdapter = new GameAdapter(false);
+
+        @Override
+        public void write(JsonWriter out, GameSnapshot snapshot) throws IOException {
+            out.beginObject();
+            out.name("version").value(VERSION);
+            out.name("fen").value(snapshot.toFen());
+            out.name("gameOver").value(snapshot.getGameOver());
+            if (snapshot.getResigned() != null) {
+                out.name("resigned").value(snapshot.getResigned().name());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public GameSnapshot read(JsonReader in) throws IOException {
+            return gameAdapter.read(in).snapshot();
+        }
+    }
+
+    private static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        private final PieceAdapter pieceAdapter = new PieceAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            out.value(Fen.formatBoard(board));
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.STRING) {
+                try {
+                    return Fen.parseBoard(in.nextString());
+                }
+                catch (IllegalArgumentException e) {
+                    throw new JsonParseException(e.getMessage(), e);
+                }
+            }
+
+            // Version 1 holds the squares in a nested array, indexed [row - 1][col - 1]
+            ChessBoard board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!in.nextName().equals("board")) {
+                    in.skipValue();
+                    continue;
+                }
+                in.beginArray();
+                for (int row = 1; in.hasNext(); row++) {
+                    in.beginArray();
+                    for (int col = 1; in.hasNext(); col++) {
+                        ChessPiece piece;
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                            piece = null;
+                        }
+                        else {
+                            piece = pieceAdapter.read(in);
+                        }
+                        if (piece != null) {
+                            board.addPiece(ChessBoard.squareIndex(row, col), piece);
+                        }
+                    }
+                    in.endArray();
+                }
+                in.endArray();
+            }
+            in.endObject();
+            return board;
+        }
+    }
+
+    private static final class PieceAdapter extends TypeAdapter<ChessPiece> {
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            out.value(String.valueOf(Fen.pieceLetter(piece)));
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.STRING) {
+                String letter = in.nextString();
+                ChessPiece piece = (letter.length() == 1) ? Fen.piece(letter.charAt(0)) : null;
+                if (piece == null) {
+                    throw new JsonParseException(String.format("Unknown piece %s", letter));
+                }
+                return piece;
+            }
+
+            // Version 1 writes the color and type by name
+            TeamColor color = null;
+            ChessPiece.PieceType type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                case "teamColor":
+                    color = TeamColor.valueOf(in.nextString());
+                    break;
+                case "pieceType":
+                    type = ChessPiece.PieceType.valueOf(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+                }
+            }
+            in.endObject();
+            if (color == null || type == null) {
+                throw new JsonParseException("Piece is missing its color or type");
+            }
+            return ChessPiece.of(color, type);
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package chess;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 
 import chess.ChessGame.TeamColor;
 
 /**
  * Represents a single chess piece
+ * <p>
+ * Pieces are immutable. {@link #of(TeamColor, PieceType)} returns one shared
+ * instance per color and type, so shared pieces can be compared with
+ * {@code ==}.
  */
 public class ChessPiece {
-    private PieceType pieceType;
-    private ChessGame.TeamColor teamColor;
+    private static final ChessPiece[] INSTANCES = new ChessPiece[12];
+
+    static {
+        for (TeamColor color : TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                INSTANCES[ChessBoard.pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    private final PieceType pieceType;
+    private final ChessGame.TeamColor teamColor;
 
     /**
      * Constructs a ChessPiece object given the color and piece type
@@ -23,6 +37,26 @@ public class ChessPiece {
         this.pieceType = type;
     }
 
+    /**
+     * Gets the shared instance for a piece
+     * 
+     * @param pieceColor Color of the piece
+     * @param type       The type of the piece
+     * @return the canonical piece of that color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return INSTANCES[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
+    /**
+     * @param pieceIndex a piece index from
+     *                   {@link ChessBoard#pieceIndex(TeamColor, PieceType)}
+     * @return the canonical piece for that index
+     */
+    static ChessPiece of(int pieceIndex) {
+        return INSTANCES[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -76,18 +110,18 @@ public class ChessPiece {
      * 
      * @param board      The current chess board
      * @param myPosition The pieces current position
-     * @return HashSet of valid moves
+     * @return Collection of valid moves
      */
     private Collection<ChessMove> pawnMoves(ChessBoard board, ChessPosition myPosition) {
-        HashSet<ChessMove> moves = new HashSet<>();
+        ArrayList<ChessMove> moves = new ArrayList<>();
         int currentRow = myPosition.getRow();
         int currentCol = myPosition.getColumn();
         int startRow = (teamColor == TeamColor.WHITE) ? 2 : 7;
         int direction = (teamColor == TeamColor.WHITE) ? 1 : -1;
 
-        // Move Up
-        ChessPosition upOne = new ChessPosition(currentRow + direction, currentCol);
-        if (board.getPiece(upOne) == null) {
+        // Move Up, unless the pawn was set up on its last row
+        ChessPosition upOne = ChessPosition.of(currentRow + direction, currentCol);
+        if (upOne.isOnBoard() && board.getPiece(upOne) == null) {
             // Check for promotion when reaching the last row
             if (upOne.getRow() == 1 || upOne.getRow() == 8) {
                 addPromotionMoves(moves, myPosition, upOne);
@@ -98,40 +132,26 @@ public class ChessPiece {
 
             // Allowed to move up two if on starting row
             if (currentRow == startRow) {
-                ChessPosition upTwo = new ChessPosition(currentRow + 2 * direction, currentCol);
+                ChessPosition upTwo = ChessPosition.of(currentRow + 2 * direction, currentCol);
                 if (board.getPiece(upTwo) == null) {
                     moves.add(new ChessMove(myPosition, upTwo));
                 }
             }
         }
 
-        // Capture diagonally left
-        if (currentCol != 1) {
-            ChessPosition captureLeft = new ChessPosition(currentRow + direction, currentCol - 1);
-            ChessPiece pieceLeft = board.getPiece(captureLeft);
-            if (pieceLeft != null && pieceLeft.getTeamColor() != teamColor) {
-                // Check for promotion when capturing on the last row
-                if (captureLeft.getRow() == 1 || captureLeft.getRow() == 8) {
-                    addPromotionMoves(moves, myPosition, captureLeft);
-                }
-                else {
-                    moves.add(new ChessMove(myPosition, captureLeft));
-                }
+        // Capture diagonally
+        long captures = AttackTables.pawnAttacks(teamColor, ChessBoard.squareIndex(myPosition))
+                & board.getOccupancy(teamColor.opposite());
+        while (captures != 0) {
+            int square = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            ChessPosition capture = ChessPosition.ofSquare(square);
+            // Check for promotion when capturing on the last row
+            if (capture.getRow() == 1 || capture.getRow() == 8) {
+                addPromotionMoves(moves, myPosition, capture);
             }
-        }
-
-        // Capture diagonally right
-        if (currentCol != 8) {
-            ChessPosition captureRight = new ChessPosition(currentRow + direction, currentCol + 1);
-            ChessPiece pieceRight = board.getPiece(captureRight);
-            if (pieceRight != null && pieceRight.getTeamColor() != teamColor) {
-                // Check for promotion when capturing on the last row
-                if (captureRight.getRow() == 1 || captureRight.getRow() == 8) {
-                    addPromotionMoves(moves, myPosition, captureRight);
-                }
-                else {
-                    moves.add(new ChessMove(myPosition, captureRight));
-                }
+            else {
+                moves.add(new ChessMove(myPosition, capture));
             }
         }
 
@@ -154,47 +174,19 @@ public class ChessPiece {
     }
 
     /**
-     * Calculates the possible moves for pieces that can move any number of spaces
-     * in a certain direction
+     * Turns a bitboard of target squares into moves from the given position
      * 
-     * @param board      The current chess board
      * @param myPosition The pieces current position
-     * @param directions The directions the piece can move continously
-     * @return HashSet of valid moves
+     * @param targets    Bitboard of squares the piece can move to
+     * @return Collection of moves, one per target square
      */
-    private Collection<ChessMove> continuousMoves(ChessBoard board, ChessPosition myPosition, int[][] directions) {
-        HashSet<ChessMove> moves = new HashSet<>();
-        int currentRow = myPosition.getRow();
-        int currentCol = myPosition.getColumn();
-        for (int[] direction : directions) {
-            int rowChange = direction[0];
-            int colChange = direction[1];
-            int row = currentRow;
-            int col = currentCol;
-            while (true) {
-                row += rowChange;
-                col += colChange;
-                if (row < 1 || row > 8 || col < 1 || col > 8) {
-                    break;
-                }
-
-                ChessPosition newPosition = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(newPosition);
-                // if empty allowed to move there
-                if (piece == null) {
-                    moves.add(new ChessMove(myPosition, newPosition));
-                }
-                else {
-                    // If enemy piece there, capture
-                    if (piece.teamColor != teamColor) {
-                        moves.add(new ChessMove(myPosition, newPosition));
-                    }
-                    // Can't jump over piece
-                    break;
-                }
-            }
+    private Collection<ChessMove> targetMoves(ChessPosition myPosition, long targets) {
+        ArrayList<ChessMove> moves = new ArrayList<>(Long.bitCount(targets) + 2);
+        while (targets != 0) {
+            int square = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(new ChessMove(myPosition, ChessPosition.ofSquare(square)));
         }
-
         return moves;
     }
 
@@ -203,15 +195,11 @@ public class ChessPiece {
      * 
      * @param board      The current chess board
      * @param myPosition The pieces current position
-     * @return HashSet of valid moves
+     * @return Collection of valid moves
      */
     private Collection<ChessMove> bishopMoves(ChessBoard board, ChessPosition myPosition) {
-        int[][] directions = { { 1, 1 }, // up-right
-                { 1, -1 }, // up-left
-                { -1, 1 }, // down-right
-                { -1, -1 } // down-left
-        };
-        return continuousMoves(board, myPosition, directions);
+        long attacks = AttackTables.bishopAttacks(ChessBoard.squareIndex(myPosition), board.getOccupied());
+        return targetMoves(myPosition, attacks & ~board.getOccupancy(teamColor));
     }
 
     /**
@@ -219,15 +207,11 @@ public class ChessPiece {
      * 
      * @param board      The current chess board
      * @param myPosition The pieces current position
-     * @return HashSet of valid moves
+     * @return Collection of valid moves
      */
     private Collection<ChessMove> rookMoves(ChessBoard board, ChessPosition myPosition) {
-        int[][] directions = { { 1, 0 }, // up
-                { -1, 0 }, // down
-                { 0, 1 }, // right
-                { 0, -1 } // left
-        };
-        return continuousMoves(board, myPosition, directions);
+        long attacks = AttackTables.rookAttacks(ChessBoard.squareIndex(myPosition), board.getOccupied());
+        return targetMoves(myPosition, attacks & ~board.getOccupancy(teamColor));
     }
 
     /**
@@ -235,49 +219,11 @@ public class ChessPiece {
      * 
      * @param board      The current chess board
      * @param myPosition The pieces current position
-     * @return HashSet of valid moves
+     * @return Collection of valid moves
      */
     private Collection<ChessMove> queenMoves(ChessBoard board, ChessPosition myPosition) {
-        int[][] directions = { { 1, 1 }, // up-right
-                { 1, -1 }, // up-left
-                { -1, 1 }, // down-right
-                { -1, -1 }, // down-left
-                { 1, 0 }, // up
-                { -1, 0 }, // down
-                { 0, 1 }, // right
-                { 0, -1 } // left
-        };
-        return continuousMoves(board, myPosition, directions);
-    }
-
-    /**
-     * Calculates valid moves given a list of possible moves (used for knight and
-     * king)
-     * 
-     * @param board         The current chess board
-     * @param myPosition    The pieces current position
-     * @param possibleMoves The allowed moves of the piece
-     * @return HashSet of valid moves
-     */
-    private Collection<ChessMove> singleMoves(ChessBoard board, ChessPosition myPosition, int[][] possibleMoves) {
-        HashSet<ChessMove> moves = new HashSet<>();
-
-        // check possible moves
-        for (int[] move : possibleMoves) {
-            int row = move[0];
-            int col = move[1];
-            // Make sure move is on the board
-            if (row < 1 || row > 8 || col < 1 || col > 8) {
-                continue;
-            }
-            ChessPosition newPosition = new ChessPosition(row, col);
-            ChessPiece piece = board.getPiece(newPosition);
-            // Empty Square or Capture
-            if (piece == null || piece.teamColor != teamColor) {
-                moves.add(new ChessMove(myPosition, newPosition));
-            }
-        }
-        return moves;
+        long attacks = AttackTables.queenAttacks(ChessBoard.squareIndex(myPosition), board.getOccupied());
+        return targetMoves(myPosition, attacks & ~board.getOccupancy(teamColor));
     }
 
     /**
@@ -285,21 +231,11 @@ public class ChessPiece {
      * 
      * @param board      The current chess board
      * @param myPosition The pieces current position
-     * @return HashSet of valid moves
+     * @return Collection of valid moves
      */
     private Collection<ChessMove> knightMoves(ChessBoard board, ChessPosition myPosition) {
-        int currentRow = myPosition.getRow();
-        int currentCol = myPosition.getColumn();
-        int[][] possibleMoves = { { currentRow + 2, currentCol + 1 }, // up 2 right 1
-                { currentRow + 2, currentCol - 1 }, // up 2 left 1
-                { currentRow - 2, currentCol + 1 }, // down 2 right 1
-                { currentRow - 2, currentCol - 1 }, // down 2 left 1
-                { currentRow + 1, currentCol + 2 }, // right 2 up 1
-                { currentRow + 1, currentCol - 2 }, // right 2 down 1
-                { currentRow - 1, currentCol + 2 }, // left 2 up 1
-                { currentRow - 1, currentCol - 2 } // left 2 down 1
-        };
-        return singleMoves(board, myPosition, possibleMoves);
+        long attacks = AttackTables.knightAttacks(ChessBoard.squareIndex(myPosition));
+        return targetMoves(myPosition, attacks & ~board.getOccupancy(teamColor));
     }
 
     /**
@@ -307,22 +243,11 @@ public class ChessPiece {
      * 
      * @param board      The current chess board
      * @param myPosition The pieces current position
-     * @return HashSet of valid moves
+     * @return Collection of valid moves
      */
     private Collection<ChessMove> kingMoves(ChessBoard board, ChessPosition myPosition) {
-        int currentRow = myPosition.getRow();
-        int currentCol = myPosition.getColumn();
-        int[][] possibleMoves = { { currentRow + 1, currentCol }, // up
-                { currentRow - 1, currentCol }, // down
-                { currentRow, currentCol + 1 }, // right
-                { currentRow, currentCol - 1 }, // left
-                { currentRow + 1, currentCol + 1 }, // up-right
-                { currentRow + 1, currentCol - 1 }, // up-left
-                { currentRow - 1, currentCol + 1 }, // down-right
-                { currentRow - 1, currentCol - 1 } // down-left
-        };
-
-        return singleMoves(board, myPosition, possibleMoves);
+        long attacks = AttackTables.kingAttacks(ChessBoard.squareIndex(myPosition));
+        return targetMoves(myPosition, attacks & ~board.getOccupancy(teamColor));
     }
 
     @Override
@@ -4,10 +4,21 @@ import java.util.Objects;
 
 /**
  * Represents a single square position on a chess board
+ * <p>
+ * Positions are immutable. {@link #of(int, int)} returns one shared instance per
+ * square, so code that builds positions in a loop does not allocate.
  */
 public class ChessPosition {
-    private int row;
-    private int col;
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
+    private final int row;
+    private final int col;
 
     /**
      * Constructs a ChessPosition Object given row and column
@@ -20,6 +31,31 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a position
+     * 
+     * @param row row number (1 for the bottom)
+     * @param col column number (1 for the left)
+     * @return the canonical position, or a new one if it is off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * Gets the shared instance for a square index
+     * 
+     * @param square the square index, from 0 (a1) to 63 (h8), as used by
+     *               {@link ChessBoard#squareIndex(int, int)}
+     * @return the canonical position
+     */
+    public static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in 1 codes for the bottom row
      */
@@ -34,6 +70,13 @@ public class ChessPosition {
         return col;
     }
 
+    /**
+     * @return True if the position is one of the 64 squares of the board
+     */
+    public boolean isOnBoard() {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(row, col);
@@ -0,0 +1,133 @@
+package chess;
+
+import chess.ChessPiece.PieceType;
+
+/**
+ * Packs a move into a single {@code int} so moves can be generated and stored
+ * without allocating objects.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square (see
+ * {@link ChessBoard#squareIndex(int, int)}). Bits 12-14 hold the promotion
+ * piece type's ordinal plus one, or 0 for no promotion. Bits 15-17 are flags
+ * describing the move.
+ */
+public final class EncodedMove {
+    /**
+     * Flag set when the move captures a piece, including en passant
+     */
+    public static final int CAPTURE = 1 << 15;
+    /**
+     * Flag set when the move is an en passant capture
+     */
+    public static final int EN_PASSANT = 1 << 16;
+    /**
+     * Flag set when the move is a king castling
+     */
+    public static final int CASTLING = 1 << 17;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private EncodedMove() {}
+
+    /**
+     * @param from  the start square index
+     * @param to    the end square index
+     * @param flags any of {@link #CAPTURE}, {@link #EN_PASSANT} and
+     *              {@link #CASTLING}
+     * @return the encoded move
+     */
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    /**
+     * @param from      the start square index
+     * @param to        the end square index
+     * @param promotion the type to promote a pawn to, or null for no promotion
+     * @param flags     any of {@link #CAPTURE}, {@link #EN_PASSANT} and
+     *                  {@link #CASTLING}
+     * @return the encoded move
+     */
+    public static int encode(int from, int to, PieceType promotion, int flags) {
+        int promotionCode = (promotion == null) ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionCode << 12) | flags;
+    }
+
+    /**
+     * Encodes a move without flags, since a {@link ChessMove} does not know what
+     * it captures
+     *
+     * @param move the move to encode
+     * @return the encoded move
+     */
+    public static int encode(ChessMove move) {
+        return encode(ChessBoard.squareIndex(move.getStartPosition()),
+                ChessBoard.squareIndex(move.getEndPosition()), move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the start square index
+     */
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the end square index
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the type to promote a pawn to, or null if the move is not a
+     *         promotion
+     */
+    public static PieceType promotion(int move) {
+        int promotionCode = (move >>> 12) & 0x7;
+        return (promotionCode == 0) ? null : PIECE_TYPES[promotionCode - 1];
+    }
+
+    /**
+     * @param move an encoded move
+     * @param flag one of {@link #CAPTURE}, {@link #EN_PASSANT} and
+     *             {@link #CASTLING}
+     * @return True if the move has the flag set
+     */
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * @param move an encoded move
+     * @return the move as a {@link ChessMove}
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.ofSquare(from(move)), ChessPosition.ofSquare(to(move)), promotion(move));
+    }
+
+    /**
+     * Writes a move in coordinate notation, such as {@code e2e4} or
+     * {@code e7e8q} for a promotion
+     *
+     * @param move an encoded move
+     * @return the move's start and end squares, plus the promotion piece
+     */
+    public static String toString(int move) {
+        StringBuilder text = new StringBuilder(5);
+        appendSquare(text, from(move));
+        appendSquare(text, to(move));
+        PieceType promotion = promotion(move);
+        if (promotion != null) {
+            text.append(promotion == PieceType.KNIGHT ? 'n' : Character.toLowerCase(promotion.name().charAt(0)));
+        }
+        return text.toString();
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + square % 8)).append((char) ('1' + square / 8));
+    }
+}
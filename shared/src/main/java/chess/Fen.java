@@ -0,0 +1,271 @@
+package chess;
+
+import java.util.function.IntFunction;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, for example the
+ * starting position:
+ *
+ * <pre>
+ * rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1
+ * </pre>
+ *
+ * The fields are the pieces from rank 8 down to rank 1, the side to move, the
+ * castling rights, the en passant target square, the halfmove clock and the
+ * fullmove number.
+ */
+final class Fen {
+    // Indexed by piece type ordinal
+    private static final String PIECE_LETTERS = "kqbnrp";
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private Fen() {}
+
+    /**
+     * @param game the game to describe
+     * @return the game's position as a FEN string
+     */
+    static String format(ChessGame game) {
+        return format(game.getBoard()::getPiece, game.getTeamTurn(), game.getCastlingRights(),
+                game.getEnPassantSquare(), game.getHalfmoveClock(), game.getFullmoveNumber());
+    }
+
+    /**
+     * Writes a snapshot's position straight from its packed board, without
+     * building a game
+     *
+     * @param snapshot the snapshot to describe
+     * @return the FEN string, including the move counters
+     */
+    static String format(GameSnapshot snapshot) {
+        return format(snapshot::getPiece, snapshot.getTeamTurn(), snapshot.getCastlingRights(),
+                snapshot.getEnPassantSquare(), snapshot.getHalfmoveClock(), snapshot.getFullmoveNumber());
+    }
+
+    private static String format(IntFunction<ChessPiece> pieces, TeamColor teamTurn, int rights, int enPassant,
+            int halfmoveClock, int fullmoveNumber) {
+        StringBuilder fen = new StringBuilder(90);
+        appendBoard(fen, pieces);
+        fen.append(teamTurn == TeamColor.WHITE ? " w " : " b ");
+
+        if (rights == 0) {
+            fen.append('-');
+        }
+        else {
+            appendIf(fen, rights, Zobrist.WHITE_KINGSIDE, 'K');
+            appendIf(fen, rights, Zobrist.WHITE_QUEENSIDE, 'Q');
+            appendIf(fen, rights, Zobrist.BLACK_KINGSIDE, 'k');
+            appendIf(fen, rights, Zobrist.BLACK_QUEENSIDE, 'q');
+        }
+
+        if (enPassant == ChessBoard.NO_SQUARE) {
+            fen.append(" -");
+        }
+        else {
+            fen.append(' ').append((char) ('a' + enPassant % 8)).append((char) ('1' + enPassant / 8));
+        }
+
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    /**
+     * Writes only the piece placement field
+     *
+     * @param board the board to describe
+     * @return the pieces from rank 8 down to rank 1, such as
+     *         {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR}
+     */
+    static String formatBoard(ChessBoard board) {
+        StringBuilder fen = new StringBuilder(72);
+        appendBoard(fen, board::getPiece);
+        return fen.toString();
+    }
+
+    /**
+     * @param pieces the piece on each square index, or null for an empty square
+     */
+    private static void appendBoard(StringBuilder fen, IntFunction<ChessPiece> pieces) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = pieces.apply(ChessBoard.squareIndex(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(pieceLetter(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+    }
+
+    /**
+     * @param fen a FEN string; the two move counters may be left off
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the FEN is not valid
+     */
+    static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length != 4 && fields.length != 6) {
+            throw invalid(fen, "expected 4 or 6 fields");
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(parseBoard(fen, fields[0]));
+
+        switch (fields[1]) {
+        case "w":
+            game.setTeamTurn(TeamColor.WHITE);
+            break;
+        case "b":
+            game.setTeamTurn(TeamColor.BLACK);
+            break;
+        default:
+            throw invalid(fen, "side to move must be w or b");
+        }
+
+        game.setCastlingRights(parseCastling(fen, fields[2]));
+        game.setEnPassantSquare(parseEnPassant(fen, fields[3]));
+
+        if (fields.length == 6) {
+            try {
+                int halfmoveClock = Integer.parseInt(fields[4]);
+                int fullmoveNumber = Integer.parseInt(fields[5]);
+                if (halfmoveClock < 0 || fullmoveNumber < 1) {
+                    throw invalid(fen, "move counters out of range");
+                }
+                game.setHalfmoveClock(halfmoveClock);
+                game.setFullmoveNumber(fullmoveNumber);
+            }
+            catch (NumberFormatException e) {
+                throw invalid(fen, "move counters must be numbers");
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Reads only the piece placement field
+     *
+     * @param placement the pieces from rank 8 down to rank 1
+     * @return a board holding those pieces
+     * @throws IllegalArgumentException if the placement is not valid
+     */
+    static ChessBoard parseBoard(String placement) {
+        return parseBoard(placement, placement);
+    }
+
+    private static ChessBoard parseBoard(String fen, String placement) {
+        String[] ranks = placement.split("/", -1);
+        if (ranks.length != 8) {
+            throw invalid(fen, "expected 8 ranks");
+        }
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                }
+                else {
+                    ChessPiece piece = piece(c);
+                    if (piece == null) {
+                        throw invalid(fen, String.format("unknown piece '%c'", c));
+                    }
+                    if (col > 8) {
+                        throw invalid(fen, String.format("rank %d has more than 8 squares", row));
+                    }
+                    board.addPiece(ChessBoard.squareIndex(row, col), piece);
+                    col++;
+                }
+            }
+            if (col != 9) {
+                throw invalid(fen, String.format("rank %d does not have 8 squares", row));
+            }
+        }
+        return board;
+    }
+
+    private static int parseCastling(String fen, String field) {
+        if (field.equals("-")) {
+            return 0;
+        }
+        int rights = 0;
+        for (char c : field.toCharArray()) {
+            switch (c) {
+            case 'K':
+                rights |= Zobrist.WHITE_KINGSIDE;
+                break;
+            case 'Q':
+                rights |= Zobrist.WHITE_QUEENSIDE;
+                break;
+            case 'k':
+                rights |= Zobrist.BLACK_KINGSIDE;
+                break;
+            case 'q':
+                rights |= Zobrist.BLACK_QUEENSIDE;
+                break;
+            default:
+                throw invalid(fen, String.format("unknown castling right '%c'", c));
+            }
+        }
+        return rights;
+    }
+
+    private static int parseEnPassant(String fen, String field) {
+        if (field.equals("-")) {
+            return ChessBoard.NO_SQUARE;
+        }
+        if (field.length() != 2 || field.charAt(0) < 'a' || field.charAt(0) > 'h'
+                || (field.charAt(1) != '3' && field.charAt(1) != '6')) {
+            throw invalid(fen, String.format("bad en passant square %s", field));
+        }
+        return ChessBoard.squareIndex(field.charAt(1) - '0', field.charAt(0) - 'a' + 1);
+    }
+
+    /**
+     * @param letter a piece letter, upper case for white
+     * @return the piece, or null if the letter is not a piece
+     */
+    static ChessPiece piece(char letter) {
+        int type = PIECE_LETTERS.indexOf(Character.toLowerCase(letter));
+        if (type < 0) {
+            return null;
+        }
+        TeamColor color = Character.isUpperCase(letter) ? TeamColor.WHITE : TeamColor.BLACK;
+        return ChessPiece.of(color, PIECE_TYPES[type]);
+    }
+
+    /**
+     * @param piece a piece
+     * @return the piece's letter, upper case for white
+     */
+    static char pieceLetter(ChessPiece piece) {
+        char letter = PIECE_LETTERS.charAt(piece.getPieceType().ordinal());
+        return (piece.getTeamColor() == TeamColor.WHITE) ? Character.toUpperCase(letter) : letter;
+    }
+
+    private static void appendIf(StringBuilder fen, int rights, int right, char letter) {
+        if ((rights & right) != 0) {
+            fen.append(letter);
+        }
+    }
+
+    private static IllegalArgumentException invalid(String fen, String reason) {
+        return new IllegalArgumentException(String.format("Invalid FEN (%s): %s", reason, fen));
+    }
+}
@@ -0,0 +1,204 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * An immutable copy of a game's position, taken with
+ * {@link ChessGame#snapshot()}.
+ * <p>
+ * The board is packed into four longs holding a 4-bit piece code per square,
+ * like the {@link ChessGameCodec} layout, so taking a snapshot costs one small
+ * allocation and no piece objects. A snapshot can be shared with any number of
+ * threads, for example to serialize or display a game, while the game it came
+ * from keeps changing.
+ * <p>
+ * Only the position is kept, along with whether the game is over and who
+ * resigned: the move history, and the undo history needed to find
+ * repetitions, stay with the game. {@link #toGame()} turns a snapshot
+ * back into a game that starts from its position.
+ */
+public final class GameSnapshot {
+    // Bits 4 * (square % 16) of squares[square / 16] hold the piece index plus one, or 0 for an empty square
+    private final long[] squares = new long[4];
+    private final long occupied;
+    private final TeamColor teamTurn;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final boolean gameOver;
+    private final TeamColor resigned;
+    private final long positionKey;
+    // Filled in on first use; every thread that races to do so computes the same string
+    private String fen;
+
+    GameSnapshot(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        for (TeamColor color : TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                long code = ChessBoard.pieceIndex(color, type) + 1;
+                for (long pieces = board.getPieces(color, type); pieces != 0; pieces &= pieces - 1) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    squares[square >>> 4] |= code << (4 * (square & 15));
+                }
+            }
+        }
+        occupied = board.getOccupied();
+        teamTurn = game.getTeamTurn();
+        castlingRights = game.getCastlingRights();
+        enPassantSquare = game.getEnPassantSquare();
+        halfmoveClock = game.getHalfmoveClock();
+        fullmoveNumber = game.getFullmoveNumber();
+        gameOver = game.getGameOver();
+        resigned = game.getResigned();
+        positionKey = game.positionKey();
+    }
+
+    /**
+     * @param position the position to look at
+     * @return the piece at the position, or null if it is empty
+     * @throws IllegalArgumentException if the position is off the board
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return getPiece(ChessBoard.checkedIndex(position));
+    }
+
+    /**
+     * @param square the square index to look at
+     * @return the piece on the square, or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        int code = (int) (squares[square >>> 4] >>> (4 * (square & 15))) & 15;
+        return (code == 0) ? null : ChessPiece.of(code - 1);
+    }
+
+    /**
+     * @return bitboard of the squares holding a piece
+     */
+    long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * @return which team's turn it is
+     */
+    public TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @return the castling rights, as the bits defined by {@link Zobrist}
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the en passant target square, or {@link ChessBoard#NO_SQUARE}
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @return the halfmove clock, as used by the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public boolean getGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return the team that resigned, or null if neither has
+     */
+    public TeamColor getResigned() {
+        return resigned;
+    }
+
+    /**
+     * @return the game's {@link ChessGame#positionKey()} when the snapshot was
+     *         taken
+     */
+    public long positionKey() {
+        return positionKey;
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation, straight from the packed
+     * board
+     *
+     * @return the FEN string, including the move counters
+     */
+    public String toFen() {
+        String result = fen;
+        if (result == null) {
+            result = Fen.format(this);
+            fen = result;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new game in the snapshot's position, with no move history
+     *
+     * @return the game
+     */
+    public ChessGame toGame() {
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = getPiece(square);
+            if (piece != null) {
+                board.addPiece(square, piece);
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(teamTurn);
+        game.setCastlingRights(castlingRights);
+        game.setEnPassantSquare(enPassantSquare);
+        game.setHalfmoveClock(halfmoveClock);
+        game.setFullmoveNumber(fullmoveNumber);
+        game.setGameOver(gameOver);
+        if (resigned != null) {
+            game.resign(resigned);
+        }
+        return game;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(positionKey) * 31 + halfmoveClock * 7 + fullmoveNumber + Objects.hashCode(resigned);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        GameSnapshot other = (GameSnapshot) obj;
+        return Arrays.equals(squares, other.squares) && teamTurn == other.teamTurn
+                && castlingRights == other.castlingRights && enPassantSquare == other.enPassantSquare
+                && halfmoveClock == other.halfmoveClock && fullmoveNumber == other.fullmoveNumber
+                && gameOver == other.gameOver && resigned == other.resigned;
+    }
+}
@@ -0,0 +1,373 @@
+package chess;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Generates fully legal moves for one team in one position.
+ * <p>
+ * The pieces giving check and the pieces pinned to the king are found once
+ * when the generator is created. Each move is then filtered with masks: while
+ * in check a non-king move has to capture the checker or block it, and a pinned
+ * piece can only move along the line through its king and the pinning piece.
+ * Only king moves and en passant captures need an attack test per move.
+ */
+final class MoveGenerator {
+    private static final PieceType[] PROMOTION_TYPES = { PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP,
+            PieceType.KNIGHT };
+
+    private final MoveList scratch = new MoveList();
+
+    private ChessBoard board;
+    private TeamColor us;
+    private TeamColor them;
+    private int castlingRights;
+    private int enPassantSquare;
+    private long ours;
+    private long occupied;
+    private int kingSquare;
+    private long checkers;
+    private long checkMask;
+    private long pinned;
+
+    /**
+     * Sets up the generator for a position, finding checks and pins. A generator
+     * can be reset any number of times, so one instance can be reused without
+     * allocating.
+     *
+     * @param board           the board to generate moves on
+     * @param us              the team to generate moves for
+     * @param castlingRights  the castling rights, as {@link Zobrist} bits
+     * @param enPassantSquare the en passant target square, or
+     *                        {@link ChessBoard#NO_SQUARE}
+     * @return this generator
+     */
+    MoveGenerator reset(ChessBoard board, TeamColor us, int castlingRights, int enPassantSquare) {
+        this.board = board;
+        this.us = us;
+        this.them = us.opposite();
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.ours = board.getOccupancy(us);
+        this.occupied = board.getOccupied();
+
+        kingSquare = board.getKingSquare(us);
+        // Boards without a king have nothing to keep safe
+        if (kingSquare == ChessBoard.NO_SQUARE) {
+            checkers = 0;
+            checkMask = -1L;
+            pinned = 0;
+            return this;
+        }
+        checkers = attackersTo(board, kingSquare, them, occupied);
+
+        if (checkers == 0) {
+            checkMask = -1L;
+        }
+        else if (Long.bitCount(checkers) == 1) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | AttackTables.between(kingSquare, checker);
+        }
+        else {
+            // Double check, only the king can move
+            checkMask = 0;
+        }
+
+        // Enemy sliders that would see the king if our pieces were not in the way
+        long theirs = board.getOccupancy(them);
+        long queens = board.getPieces(them, PieceType.QUEEN);
+        long snipers = (AttackTables.rookAttacks(kingSquare, theirs) & (board.getPieces(them, PieceType.ROOK) | queens))
+                | (AttackTables.bishopAttacks(kingSquare, theirs)
+                        & (board.getPieces(them, PieceType.BISHOP) | queens));
+        long pinnedPieces = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinnedPieces |= blockers & ours;
+            }
+        }
+        pinned = pinnedPieces;
+        return this;
+    }
+
+    /**
+     * Gets every piece of a team that attacks a square
+     *
+     * @param board    the board to look at
+     * @param square   the square being attacked
+     * @param attacker the team doing the attacking
+     * @param occupied the occupancy to use for sliding pieces
+     * @return Bitboard of the attacking pieces
+     */
+    static long attackersTo(ChessBoard board, int square, TeamColor attacker, long occupied) {
+        long queens = board.getPieces(attacker, PieceType.QUEEN);
+        long bishops = board.getPieces(attacker, PieceType.BISHOP) | queens;
+        long rooks = board.getPieces(attacker, PieceType.ROOK) | queens;
+        return (AttackTables.pawnAttacks(attacker.opposite(), square) & board.getPieces(attacker, PieceType.PAWN))
+                | (AttackTables.knightAttacks(square) & board.getPieces(attacker, PieceType.KNIGHT))
+                | (AttackTables.kingAttacks(square) & board.getPieces(attacker, PieceType.KING))
+                | (AttackTables.bishopAttacks(square, occupied) & bishops)
+                | (AttackTables.rookAttacks(square, occupied) & rooks);
+    }
+
+    /**
+     * @return True if the team's king is currently attacked
+     */
+    boolean inCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * @return True if the team has at least one legal move
+     */
+    boolean hasMoves() {
+        scratch.clear();
+        // Try the king first since it can move even in double check
+        generate(board.getPieces(us, PieceType.KING), scratch);
+        long pieces = ours;
+        while (pieces != 0 && scratch.isEmpty()) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            generateFrom(from, scratch);
+        }
+        return !scratch.isEmpty();
+    }
+
+    /**
+     * Adds the legal moves of the team's pieces on the given squares
+     *
+     * @param fromSquares Bitboard of the squares to generate moves from
+     * @param moves       the list to add encoded moves to
+     */
+    void generate(long fromSquares, MoveList moves) {
+        long pieces = fromSquares & ours;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            generateFrom(from, moves);
+        }
+    }
+
+    /**
+     * Checks a single move without generating the moving piece's other moves
+     *
+     * @param from      the start square index
+     * @param to        the end square index
+     * @param promotion the promotion piece, which must be given exactly when a
+     *                  pawn reaches the last rank
+     * @return True if the move is legal for the team
+     */
+    boolean isLegal(int from, int to, PieceType promotion) {
+        if (from == to || (ours & (1L << from)) == 0) {
+            return false;
+        }
+        PieceType type = board.getPiece(from).getPieceType();
+        long toBit = 1L << to;
+        if (type != PieceType.PAWN && promotion != null) {
+            return false;
+        }
+
+        if (type == PieceType.KING) {
+            if (checkers == 0 && Math.abs(to - from) == 2 && (to & ~7) == (from & ~7)) {
+                return canCastle(from, to > from);
+            }
+            long withoutKing = occupied & ~(1L << from);
+            return (AttackTables.kingAttacks(from) & ~ours & toBit) != 0
+                    && attackersTo(board, to, them, withoutKing) == 0;
+        }
+
+        long allowed = checkMask;
+        if ((pinned & (1L << from)) != 0) {
+            allowed &= AttackTables.line(kingSquare, from);
+        }
+
+        switch (type) {
+        case PAWN:
+            boolean lastRank = to < 8 || to >= 56;
+            if (lastRank != (promotion != null) || promotion == PieceType.KING || promotion == PieceType.PAWN) {
+                return false;
+            }
+            if (to == enPassantSquare && (AttackTables.pawnAttacks(us, from) & toBit) != 0) {
+                return isLegalEnPassant(from);
+            }
+            return (pawnTargets(from) & allowed & toBit) != 0;
+        case KNIGHT:
+            return (AttackTables.knightAttacks(from) & ~ours & allowed & toBit) != 0;
+        case BISHOP:
+            return (AttackTables.bishopAttacks(from, occupied) & ~ours & allowed & toBit) != 0;
+        case ROOK:
+            return (AttackTables.rookAttacks(from, occupied) & ~ours & allowed & toBit) != 0;
+        case QUEEN:
+            return (AttackTables.queenAttacks(from, occupied) & ~ours & allowed & toBit) != 0;
+        default:
+            throw new RuntimeException(String.format("Unknown piece type: %s", type.toString()));
+        }
+    }
+
+    private void generateFrom(int from, MoveList moves) {
+        PieceType type = board.getPiece(from).getPieceType();
+        if (type == PieceType.KING) {
+            generateKingMoves(from, moves);
+            return;
+        }
+
+        // Pinned pieces stay on the line through the king and the pinner
+        long allowed = checkMask;
+        if ((pinned & (1L << from)) != 0) {
+            allowed &= AttackTables.line(kingSquare, from);
+        }
+        if (allowed == 0) {
+            return;
+        }
+
+        switch (type) {
+        case PAWN:
+            generatePawnMoves(from, allowed, moves);
+            break;
+        case KNIGHT:
+            addMoves(from, AttackTables.knightAttacks(from) & ~ours & allowed, moves);
+            break;
+        case BISHOP:
+            addMoves(from, AttackTables.bishopAttacks(from, occupied) & ~ours & allowed, moves);
+            break;
+        case ROOK:
+            addMoves(from, AttackTables.rookAttacks(from, occupied) & ~ours & allowed, moves);
+            break;
+        case QUEEN:
+            addMoves(from, AttackTables.queenAttacks(from, occupied) & ~ours & allowed, moves);
+            break;
+        default:
+            throw new RuntimeException(String.format("Unknown piece type: %s", type.toString()));
+        }
+    }
+
+    private void generatePawnMoves(int from, long allowed, MoveList moves) {
+        long targets = pawnTargets(from) & allowed;
+
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = captureFlag(to);
+            if (to < 8 || to >= 56) {
+                for (PieceType promotion : PROMOTION_TYPES) {
+                    moves.add(EncodedMove.encode(from, to, promotion, flags));
+                }
+            }
+            else {
+                moves.add(EncodedMove.encode(from, to, flags));
+            }
+        }
+
+        if (enPassantSquare != ChessBoard.NO_SQUARE
+                && (AttackTables.pawnAttacks(us, from) & (1L << enPassantSquare)) != 0 && isLegalEnPassant(from)) {
+            moves.add(EncodedMove.encode(from, enPassantSquare, EncodedMove.CAPTURE | EncodedMove.EN_PASSANT));
+        }
+    }
+
+    /**
+     * Gets the squares a pawn can push or capture to, not counting en passant or
+     * king safety
+     */
+    private long pawnTargets(int from) {
+        int forward = (us == TeamColor.WHITE) ? 8 : -8;
+        int startRow = (us == TeamColor.WHITE) ? 1 : 6;
+
+        long targets = 0;
+        int oneUp = from + forward;
+        if (oneUp >= 0 && oneUp < 64 && (occupied & (1L << oneUp)) == 0) {
+            targets |= 1L << oneUp;
+            int twoUp = oneUp + forward;
+            if (from / 8 == startRow && (occupied & (1L << twoUp)) == 0) {
+                targets |= 1L << twoUp;
+            }
+        }
+        return targets | (AttackTables.pawnAttacks(us, from) & board.getOccupancy(them));
+    }
+
+    /**
+     * En passant removes two pawns from the same rank, which can expose the king
+     * in ways the pin masks do not cover, so it is checked directly
+     */
+    private boolean isLegalEnPassant(int from) {
+        // The target square is only valid for the team that did not just move
+        int targetRow = (us == TeamColor.WHITE) ? 5 : 2;
+        if (enPassantSquare / 8 != targetRow) {
+            return false;
+        }
+        int captured = (from & ~7) | (enPassantSquare & 7);
+        if ((board.getPieces(them, PieceType.PAWN) & (1L << captured)) == 0) {
+            return false;
+        }
+        if (kingSquare == ChessBoard.NO_SQUARE) {
+            return true;
+        }
+        long after = (occupied & ~(1L << from) & ~(1L << captured)) | (1L << enPassantSquare);
+        long attackers = attackersTo(board, kingSquare, them, after) & ~(1L << captured);
+        return attackers == 0;
+    }
+
+    private void generateKingMoves(int from, MoveList moves) {
+        // Take the king off the board so it cannot hide behind itself from a slider
+        long withoutKing = occupied & ~(1L << from);
+        long targets = AttackTables.kingAttacks(from) & ~ours;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (attackersTo(board, to, them, withoutKing) == 0) {
+                moves.add(EncodedMove.encode(from, to, captureFlag(to)));
+            }
+        }
+
+        if (checkers == 0) {
+            generateCastling(from, moves);
+        }
+    }
+
+    private void generateCastling(int from, MoveList moves) {
+        if (canCastle(from, true)) {
+            moves.add(EncodedMove.encode(from, from + 2, EncodedMove.CASTLING));
+        }
+        if (canCastle(from, false)) {
+            moves.add(EncodedMove.encode(from, from - 2, EncodedMove.CASTLING));
+        }
+    }
+
+    /**
+     * Checks the castling rules other than not being in check: the right has
+     * not been lost, the rook is home, the squares between are empty and the
+     * king does not cross or land on an attacked square
+     */
+    private boolean canCastle(int from, boolean kingside) {
+        int homeSquare = (us == TeamColor.WHITE) ? 4 : 60;
+        if (from != homeSquare) {
+            return false;
+        }
+        int right;
+        if (kingside) {
+            right = (us == TeamColor.WHITE) ? Zobrist.WHITE_KINGSIDE : Zobrist.BLACK_KINGSIDE;
+        }
+        else {
+            right = (us == TeamColor.WHITE) ? Zobrist.WHITE_QUEENSIDE : Zobrist.BLACK_QUEENSIDE;
+        }
+        int rookSquare = kingside ? from + 3 : from - 4;
+        int step = kingside ? 1 : -1;
+        return (castlingRights & right) != 0 && (board.getPieces(us, PieceType.ROOK) & (1L << rookSquare)) != 0
+                && (occupied & AttackTables.between(from, rookSquare)) == 0
+                && attackersTo(board, from + step, them, occupied) == 0
+                && attackersTo(board, from + 2 * step, them, occupied) == 0;
+    }
+
+    private void addMoves(int from, long targets, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(EncodedMove.encode(from, to, captureFlag(to)));
+        }
+    }
+
+    private int captureFlag(int to) {
+        return ((occupied & (1L << to)) != 0) ? EncodedMove.CAPTURE : 0;
+    }
+}
@@ -0,0 +1,132 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * The moves played in a game, in order, each kept both encoded with
+ * {@link EncodedMove} and in Standard Algebraic Notation. The notation is
+ * written when the move is made, so exporting a game never has to replay it.
+ */
+public final class MoveHistory {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    // Taken when the first move is recorded, so it can be written out without rebuilding a game
+    private GameSnapshot start;
+    private int[] moves = new int[DEFAULT_CAPACITY];
+    private String[] san = new String[DEFAULT_CAPACITY];
+    // The undo stack depth each move was recorded at
+    private int[] undoIndexes = new int[DEFAULT_CAPACITY];
+    private int size;
+
+    MoveHistory() {}
+
+    MoveHistory(MoveHistory other) {
+        start = other.start;
+        moves = other.moves.clone();
+        san = other.san.clone();
+        undoIndexes = other.undoIndexes.clone();
+        size = other.size;
+    }
+
+    /**
+     * @return how many moves have been recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if no moves have been recorded
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the index of the move, 0 for the first move
+     * @return the move encoded with {@link EncodedMove}, including its flags
+     */
+    public int getMove(int index) {
+        checkIndex(index);
+        return moves[index];
+    }
+
+    /**
+     * @param index the index of the move, 0 for the first move
+     * @return the move in Standard Algebraic Notation, such as {@code Nxe5+}
+     */
+    public String getSan(int index) {
+        checkIndex(index);
+        return san[index];
+    }
+
+    /**
+     * @return the FEN of the position before the first recorded move, or null
+     *         if no moves have been recorded
+     */
+    public String getStartFen() {
+        return (start == null) ? null : start.toFen();
+    }
+
+    /**
+     * @return the position before the first recorded move, or null if no moves
+     *         have been recorded
+     */
+    GameSnapshot getStart() {
+        return start;
+    }
+
+    /**
+     * Records a move
+     *
+     * @param position  the position before the move, kept if this is the first
+     *                  move
+     * @param move      the encoded move
+     * @param moveSan   the move in Standard Algebraic Notation
+     * @param undoIndex the undo stack depth of the move's undo record
+     */
+    void add(GameSnapshot position, int move, String moveSan, int undoIndex) {
+        if (size == 0) {
+            start = position;
+        }
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+            san = Arrays.copyOf(san, size * 2);
+            undoIndexes = Arrays.copyOf(undoIndexes, size * 2);
+        }
+        moves[size] = move;
+        san[size] = moveSan;
+        undoIndexes[size] = undoIndex;
+        size++;
+    }
+
+    /**
+     * Forgets the last move if it was recorded at the given undo stack depth,
+     * so the history follows {@link ChessGame#undoMove()}
+     *
+     * @param undoIndex the undo stack depth of the record being taken back
+     */
+    void undo(int undoIndex) {
+        if (size > 0 && undoIndexes[size - 1] == undoIndex) {
+            san[--size] = null;
+            if (size == 0) {
+                start = null;
+            }
+        }
+    }
+
+    /**
+     * Forgets every move
+     */
+    void clear() {
+        Arrays.fill(san, 0, size, null);
+        size = 0;
+        start = null;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of moves encoded with {@link EncodedMove}, backed by an
+ * {@code int[]}. Clearing and refilling the same list generates moves without
+ * creating garbage.
+ */
+public final class MoveList {
+    // More than the most legal moves any chess position has
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        moves = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Adds an encoded move to the end of the list
+     *
+     * @param move the encoded move to add
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * @param index the index of the move to get
+     * @return the encoded move at that index
+     */
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return moves[index];
+    }
+
+    /**
+     * Replaces the move at an index, e.g. when sorting moves in place
+     *
+     * @param index the index of the move to replace
+     * @param move  the new encoded move
+     */
+    public void set(int index, int move) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        moves[index] = move;
+    }
+
+    /**
+     * @return the number of moves in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if the list holds no moves
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every move, keeping the backing array for reuse
+     */
+    public void clear() {
+        size = 0;
+    }
+}
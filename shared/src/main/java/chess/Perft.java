@@ -0,0 +1,128 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth (perft). The
+ * counts for well known positions are published, so any difference points to
+ * a move generation bug, and the time taken measures raw move generation
+ * speed.
+ * <p>
+ * Moves are generated into one reusable {@link MoveList} per ply and played
+ * with {@link ChessGame#doMove(int)} and {@link ChessGame#undoMove()}, so a
+ * run does not allocate.
+ */
+public final class Perft {
+    private final ChessGame game;
+    private MoveList[] lists = new MoveList[0];
+
+    /**
+     * @param game the game to count moves in; it is changed during a run and
+     *             restored afterwards
+     */
+    public Perft(ChessGame game) {
+        this.game = game;
+    }
+
+    /**
+     * Counts the positions reachable in exactly the given number of moves
+     *
+     * @param depth how many moves deep to search
+     * @return the number of leaf nodes
+     */
+    public long perft(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative");
+        }
+        ensureLists(depth);
+        return count(depth);
+    }
+
+    /**
+     * Counts the leaf nodes under each legal move separately, which narrows a
+     * wrong total down to the move whose subtree is wrong
+     *
+     * @param depth how many moves deep to search, counting the first move
+     * @return the leaf count for each first move in coordinate notation, in
+     *         generation order
+     */
+    public Map<String, Long> divide(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1");
+        }
+        ensureLists(depth);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        MoveList moves = lists[depth];
+        game.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.doMove(move);
+            counts.put(EncodedMove.toString(move), count(depth - 1));
+            game.undoMove();
+        }
+        return counts;
+    }
+
+    private long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth];
+        game.generateLegalMoves(moves);
+        // Every legal move is a leaf, no need to play them
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(depth - 1);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    private void ensureLists(int depth) {
+        if (lists.length > depth) {
+            return;
+        }
+        MoveList[] grown = new MoveList[depth + 1];
+        for (int i = 0; i < grown.length; i++) {
+            grown[i] = (i < lists.length) ? lists[i] : new MoveList();
+        }
+        lists = grown;
+    }
+
+    /**
+     * Runs perft from the command line and prints the count for each first
+     * move, the total and the speed
+     *
+     * @param args the depth, optionally followed by a FEN (defaults to the
+     *             starting position)
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: Perft <depth> [fen]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = (args.length > 1) ? String.join(" ", Arrays.copyOfRange(args, 1, args.length))
+                : ChessGame.START_POSITION;
+
+        Perft perft = new Perft(ChessGame.fromFen(fen));
+        long start = System.nanoTime();
+        Map<String, Long> counts = perft.divide(depth);
+        long elapsed = System.nanoTime() - start;
+
+        long nodes = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+            nodes += entry.getValue();
+        }
+        System.out.printf("%nNodes: %d%n", nodes);
+        System.out.printf("Time: %d ms%n", elapsed / 1_000_000);
+        System.out.printf("Nodes/second: %d%n", (long) (nodes / Math.max(elapsed / 1e9, 1e-9)));
+    }
+}
@@ -0,0 +1,147 @@
+package chess;
+
+import java.io.IOException;
+import java.util.Map;
+
+import chess.ChessGame.GameStatus;
+import chess.ChessGame.TeamColor;
+
+/**
+ * Writes games in Portable Game Notation, one after another, straight to an
+ * output such as a file or a socket. Each game is made from its
+ * {@link ChessGame#getMoveHistory() move history}, whose moves are already in
+ * Standard Algebraic Notation, so nothing is replayed or built up in memory.
+ */
+public final class PgnWriter {
+    private static final int LINE_LENGTH = 80;
+    private static final String[] ROSTER = { "Event", "Site", "Date", "Round", "White", "Black", "Result" };
+
+    private final Appendable out;
+
+    /**
+     * @param out where to write the games
+     */
+    public PgnWriter(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a game with the seven standard tags, filled with {@code ?} where
+     * not given. Games that did not start from the standard position also get
+     * {@code SetUp} and {@code FEN} tags.
+     *
+     * @param game the game to write
+     * @param tags tag values by name, such as {@code White}; the
+     *             {@code Result} tag defaults to the game's result
+     * @throws IOException if the output cannot be written
+     */
+    public void write(ChessGame game, Map<String, String> tags) throws IOException {
+        MoveHistory history = game.getMoveHistory();
+        String result = tags.getOrDefault("Result", result(game));
+
+        for (String name : ROSTER) {
+            String value = name.equals("Result") ? result : tags.get(name);
+            writeTag(name, (value != null) ? value : defaultValue(name));
+        }
+        String startFen = history.isEmpty() ? game.toFen() : history.getStartFen();
+        boolean setUp = !startFen.equals(ChessGame.START_POSITION);
+        if (setUp) {
+            writeTag("SetUp", "1");
+            writeTag("FEN", startFen);
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!isRosterTag(tag.getKey()) && !(setUp && isSetUpTag(tag.getKey()))) {
+                writeTag(tag.getKey(), tag.getValue());
+            }
+        }
+        out.append('\n');
+
+        String[] fields = startFen.split(" ");
+        boolean black = fields[1].equals("b");
+        int moveNumber = Integer.parseInt(fields[5]);
+        int column = 0;
+        for (int i = 0; i < history.size(); i++) {
+            String token;
+            if (!black) {
+                token = moveNumber + ". " + history.getSan(i);
+            }
+            else if (i == 0) {
+                token = moveNumber + "... " + history.getSan(i);
+            }
+            else {
+                token = history.getSan(i);
+            }
+            column = writeToken(token, column);
+            if (black) {
+                moveNumber++;
+            }
+            black = !black;
+        }
+        writeToken(result, column);
+        out.append("\n\n");
+    }
+
+    /**
+     * @param game a game
+     * @return {@code 1-0}, {@code 0-1} or {@code 1/2-1/2} when the game has
+     *         ended on the board or by resignation, otherwise {@code *}
+     */
+    static String result(ChessGame game) {
+        if (game.getResigned() != null) {
+            return (game.getResigned() == TeamColor.BLACK) ? "1-0" : "0-1";
+        }
+        GameStatus status = game.getStatus();
+        if (status == GameStatus.CHECKMATE) {
+            return (game.getTeamTurn() == TeamColor.BLACK) ? "1-0" : "0-1";
+        }
+        return status.isDraw() ? "1/2-1/2" : "*";
+    }
+
+    /**
+     * Writes a movetext token, breaking the line before it would pass
+     * {@link #LINE_LENGTH}
+     *
+     * @return the column after the token
+     */
+    private int writeToken(String token, int column) throws IOException {
+        if (column > 0 && column + 1 + token.length() > LINE_LENGTH) {
+            out.append('\n');
+            column = 0;
+        }
+        if (column > 0) {
+            out.append(' ');
+            column++;
+        }
+        out.append(token);
+        return column + token.length();
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append("\"]\n");
+    }
+
+    private static String defaultValue(String name) {
+        return name.equals("Date") ? "????.??.??" : "?";
+    }
+
+    private static boolean isRosterTag(String name) {
+        for (String rosterName : ROSTER) {
+            if (rosterName.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSetUpTag(String name) {
+        return name.equals("SetUp") || name.equals("FEN");
+    }
+}
@@ -0,0 +1,160 @@
+package chess;
+
+import chess.ChessPiece.PieceType;
+
+/**
+ * Piece values by square, for scoring positions. Each piece is worth its
+ * material plus a bonus or penalty for where it stands, with separate tables
+ * for the middlegame and the endgame so a score can be blended between them by
+ * the {@link #phase(int) game phase}.
+ * <p>
+ * Like the {@link Zobrist} key, the {@link ChessBoard} keeps the sums of these
+ * values up to date as pieces are added and removed, so a position can be
+ * scored without scanning the board. Values are in centipawns from white's
+ * point of view: white pieces add to the sums and black pieces subtract.
+ */
+public final class PieceSquareTables {
+    /**
+     * The phase of a full set of pieces, where the middlegame tables apply in
+     * full. A phase of 0 means only kings and pawns are left.
+     */
+    public static final int MAX_PHASE = 24;
+
+    // Indexed by piece type ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] MIDGAME_MATERIAL = { 0, 1025, 365, 337, 477, 82 };
+    private static final int[] ENDGAME_MATERIAL = { 0, 936, 297, 281, 512, 94 };
+    private static final int[] PHASE = { 0, 4, 1, 1, 2, 0 };
+
+    // Tables are laid out as seen from white's side, rank 8 first
+    private static final int[] KING_MIDGAME = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+         20,  20,   0,   0,   0,   0,  20,  20,
+         20,  30,  10,   0,   0,  10,  30,  20,
+    };
+    private static final int[] KING_ENDGAME = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50,
+    };
+    private static final int[] QUEEN = {
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,   5,   5,   5,   0, -10,
+         -5,   0,   5,   5,   5,   5,   0,  -5,
+          0,   0,   5,   5,   5,   5,   0,  -5,
+        -10,   5,   5,   5,   5,   5,   0, -10,
+        -10,   0,   5,   0,   0,   0,   0, -10,
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+    };
+    private static final int[] BISHOP = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,  10,  10,   5,   0, -10,
+        -10,   5,   5,  10,  10,   5,   5, -10,
+        -10,   0,  10,  10,  10,  10,   0, -10,
+        -10,  10,  10,  10,  10,  10,  10, -10,
+        -10,   5,   0,   0,   0,   0,   5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20,
+    };
+    private static final int[] KNIGHT = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20,   0,   0,   0,   0, -20, -40,
+        -30,   0,  10,  15,  15,  10,   0, -30,
+        -30,   5,  15,  20,  20,  15,   5, -30,
+        -30,   0,  15,  20,  20,  15,   0, -30,
+        -30,   5,  10,  15,  15,  10,   5, -30,
+        -40, -20,   0,   5,   5,   0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50,
+    };
+    private static final int[] ROOK = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+          5,  10,  10,  10,  10,  10,  10,   5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+          0,   0,   0,   5,   5,   0,   0,   0,
+    };
+    private static final int[] PAWN_MIDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         10,  10,  20,  30,  30,  20,  10,  10,
+          5,   5,  10,  25,  25,  10,   5,   5,
+          0,   0,   0,  20,  20,   0,   0,   0,
+          5,  -5, -10,   0,   0, -10,  -5,   5,
+          5,  10,  10, -20, -20,  10,  10,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+    };
+    // In the endgame pawns are worth more the closer they are to promoting
+    private static final int[] PAWN_ENDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         80,  80,  80,  80,  80,  80,  80,  80,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         30,  30,  30,  30,  30,  30,  30,  30,
+         15,  15,  15,  15,  15,  15,  15,  15,
+          5,   5,   5,   5,   5,   5,   5,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+          0,   0,   0,   0,   0,   0,   0,   0,
+    };
+
+    private static final int[][] MIDGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        int[][] midgameTables = { KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDGAME };
+        int[][] endgameTables = { KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME };
+        for (PieceType type : PieceType.values()) {
+            int t = type.ordinal();
+            int white = ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE, type);
+            int black = ChessBoard.pieceIndex(ChessGame.TeamColor.BLACK, type);
+            for (int square = 0; square < 64; square++) {
+                // Flipping the rank turns a square index into its place in the tables for white
+                MIDGAME[white][square] = MIDGAME_MATERIAL[t] + midgameTables[t][square ^ 56];
+                ENDGAME[white][square] = ENDGAME_MATERIAL[t] + endgameTables[t][square ^ 56];
+                MIDGAME[black][square] = -(MIDGAME_MATERIAL[t] + midgameTables[t][square]);
+                ENDGAME[black][square] = -(ENDGAME_MATERIAL[t] + endgameTables[t][square]);
+            }
+        }
+    }
+
+    private PieceSquareTables() {}
+
+    /**
+     * @param pieceIndex the piece's color and type, from 0 to 11
+     * @param square     the square index
+     * @return the middlegame value of that piece on that square, negative for
+     *         black pieces
+     */
+    public static int midgame(int pieceIndex, int square) {
+        return MIDGAME[pieceIndex][square];
+    }
+
+    /**
+     * @param pieceIndex the piece's color and type, from 0 to 11
+     * @param square     the square index
+     * @return the endgame value of that piece on that square, negative for
+     *         black pieces
+     */
+    public static int endgame(int pieceIndex, int square) {
+        return ENDGAME[pieceIndex][square];
+    }
+
+    /**
+     * @param pieceIndex the piece's color and type, from 0 to 11
+     * @return how much the piece counts towards the game phase
+     */
+    public static int phase(int pieceIndex) {
+        return PHASE[pieceIndex % 6];
+    }
+}
@@ -0,0 +1,136 @@
+package chess;
+
+import chess.ChessGame.GameStatus;
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Writes moves in Standard Algebraic Notation, such as {@code e4},
+ * {@code Nbd7}, {@code exd6}, {@code O-O} or {@code e8=Q#}
+ */
+final class San {
+    // Indexed by piece type ordinal; pawns have no letter
+    private static final String PIECE_LETTERS = "KQBNR";
+
+    private San() {}
+
+    /**
+     * Writes a legal move, without the check or mate suffix
+     *
+     * @param board     the board before the move
+     * @param generator a generator reset for the moving team in this position,
+     *                  used to rule out pinned pieces when disambiguating
+     * @param move      the encoded move, with its flags
+     * @return the move in Standard Algebraic Notation
+     */
+    static String format(ChessBoard board, MoveGenerator generator, int move) {
+        int from = EncodedMove.from(move);
+        int to = EncodedMove.to(move);
+        ChessPiece piece = board.getPiece(from);
+        PieceType type = piece.getPieceType();
+        StringBuilder san = new StringBuilder(8);
+
+        if (EncodedMove.hasFlag(move, EncodedMove.CASTLING)) {
+            return (to > from) ? "O-O" : "O-O-O";
+        }
+
+        if (type == PieceType.PAWN) {
+            if (EncodedMove.hasFlag(move, EncodedMove.CAPTURE)) {
+                san.append(file(from)).append('x');
+            }
+            appendSquare(san, to);
+            PieceType promotion = EncodedMove.promotion(move);
+            if (promotion != null) {
+                san.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+            }
+            return san.toString();
+        }
+
+        san.append(PIECE_LETTERS.charAt(type.ordinal()));
+        if (type != PieceType.KING) {
+            appendDisambiguation(san, board, generator, piece.getTeamColor(), type, from, to);
+        }
+        if (EncodedMove.hasFlag(move, EncodedMove.CAPTURE)) {
+            san.append('x');
+        }
+        appendSquare(san, to);
+        return san.toString();
+    }
+
+    /**
+     * @param status  the game status after the move
+     * @param inCheck whether the move gives check, which a draw by repetition or
+     *                the fifty-move rule can hide from the status
+     * @return {@code #} for checkmate, {@code +} for check, otherwise nothing
+     */
+    static String suffix(GameStatus status, boolean inCheck) {
+        if (status == GameStatus.CHECKMATE) {
+            return "#";
+        }
+        return inCheck ? "+" : "";
+    }
+
+    /**
+     * Adds the start file, rank or square when another piece of the same type
+     * could also legally move to the target square
+     */
+    private static void appendDisambiguation(StringBuilder san, ChessBoard board, MoveGenerator generator,
+            TeamColor color, PieceType type, int from, int to) {
+        long occupied = board.getOccupied();
+        long reach;
+        switch (type) {
+        case KNIGHT:
+            reach = AttackTables.knightAttacks(to);
+            break;
+        case BISHOP:
+            reach = AttackTables.bishopAttacks(to, occupied);
+            break;
+        case ROOK:
+            reach = AttackTables.rookAttacks(to, occupied);
+            break;
+        default:
+            reach = AttackTables.queenAttacks(to, occupied);
+            break;
+        }
+
+        long others = reach & board.getPieces(color, type) & ~(1L << from);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        while (others != 0) {
+            int other = Long.numberOfTrailingZeros(others);
+            others &= others - 1;
+            if (!generator.isLegal(other, to, null)) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= (other % 8) == (from % 8);
+            sameRank |= (other / 8) == (from / 8);
+        }
+
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append(file(from));
+        }
+        else if (!sameRank) {
+            san.append(rank(from));
+        }
+        else {
+            appendSquare(san, from);
+        }
+    }
+
+    private static void appendSquare(StringBuilder san, int square) {
+        san.append(file(square)).append(rank(square));
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + square % 8);
+    }
+
+    private static char rank(int square) {
+        return (char) ('1' + square / 8);
+    }
+}
@@ -0,0 +1,94 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing of chess positions.
+ * <p>
+ * A position's key is the XOR of one key per piece on its square, plus keys
+ * for the side to move, the castling rights and the en passant file. Moving a
+ * piece only needs to XOR out the old square and XOR in the new one, so keys
+ * can be kept up to date without rescanning the board.
+ */
+public final class Zobrist {
+    /**
+     * Castling right bits, as packed by {@link ChessGame#getCastlingRights()}
+     */
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        // Fixed seed so keys are stable across JVMs and can be stored
+        long[] seed = { 0x5DEECE66DL };
+        for (long[] squares : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = nextRandom(seed);
+            }
+        }
+        long[] rightKeys = new long[4];
+        for (int i = 0; i < rightKeys.length; i++) {
+            rightKeys[i] = nextRandom(seed);
+        }
+        // Each combination of rights is the XOR of its individual rights
+        for (int rights = 0; rights < CASTLING_KEYS.length; rights++) {
+            for (int i = 0; i < rightKeys.length; i++) {
+                if ((rights & (1 << i)) != 0) {
+                    CASTLING_KEYS[rights] ^= rightKeys[i];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT_KEYS.length; file++) {
+            EN_PASSANT_KEYS[file] = nextRandom(seed);
+        }
+        BLACK_TO_MOVE = nextRandom(seed);
+    }
+
+    private Zobrist() {}
+
+    /**
+     * @param pieceIndex the piece's color and type, from 0 to 11
+     * @param square     the square index
+     * @return the key for that piece standing on that square
+     */
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_KEYS[pieceIndex][square];
+    }
+
+    /**
+     * @param rights the packed castling right bits
+     * @return the key for that set of castling rights
+     */
+    public static long castling(int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    /**
+     * @param file the en passant file, 0 for the a file
+     * @return the key for an en passant capture on that file
+     */
+    public static long enPassant(int file) {
+        return EN_PASSANT_KEYS[file];
+    }
+
+    /**
+     * @return the key XORed in when black is to move
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * SplitMix64 generator
+     */
+    private static long nextRandom(long[] seed) {
+        long z = (seed[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,205 @@
+package chess.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Perfect win or draw answers for a king and one other piece against a lone
+ * king (KQK, KRK, KBK, KNK and KPK), as computed by {@link BitbaseGenerator}.
+ * <p>
+ * With only one piece besides the kings, the side with that piece (the strong
+ * side) either wins or the game is drawn, so one bit per position is enough.
+ * Positions are indexed by who is to move and the squares of the strong king,
+ * the weak king and the piece, with the board flipped when black is the strong
+ * side, giving 2 x 64 x 64 x 64 bits: 64KB per endgame. Files are memory
+ * mapped read-only, so one instance can be shared by every game and thread.
+ * <p>
+ * Castling rights are not considered; with so little material they never
+ * change the result.
+ */
+public final class Bitbase {
+    /**
+     * The result of a position for the team to move, with perfect play
+     */
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    static final int POSITIONS = 2 * 64 * 64 * 64;
+
+    // The file is this header, followed by the bits as big-endian longs
+    private static final int MAGIC = 0x4B424231;
+    private static final int HEADER_SIZE = 8;
+    private static final int FILE_SIZE = HEADER_SIZE + POSITIONS / 8;
+
+    private final ByteBuffer bits;
+    private final PieceType pieceType;
+
+    private Bitbase(ByteBuffer bits) {
+        if (bits.capacity() != FILE_SIZE || bits.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a bitbase");
+        }
+        int type = bits.getInt(4);
+        if (type <= PieceType.KING.ordinal() || type >= PieceType.values().length) {
+            throw new IllegalArgumentException("Not a bitbase");
+        }
+        this.bits = bits;
+        this.pieceType = PieceType.values()[type];
+    }
+
+    /**
+     * @param pieceType the strong side's piece
+     * @param wins      one bit per position index, set when the strong side
+     *                  wins
+     */
+    static Bitbase of(PieceType pieceType, long[] wins) {
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE);
+        buffer.putInt(MAGIC).putInt(pieceType.ordinal());
+        buffer.asLongBuffer().put(wins);
+        return new Bitbase(buffer);
+    }
+
+    /**
+     * Maps a bitbase file into memory. The mapping stays valid after the file is
+     * closed, until the bitbase is garbage collected.
+     *
+     * @param file the bitbase file
+     * @return the bitbase
+     * @throws IOException if the file cannot be read or is not a bitbase
+     */
+    public static Bitbase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_SIZE) {
+                throw new IOException("Not a bitbase: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+            try {
+                return new Bitbase(mapped);
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("Not a bitbase: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Writes the bitbase to a file, replacing it if it exists
+     *
+     * @param file the bitbase file
+     * @throws IOException if writing fails
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer contents = bits.duplicate().clear();
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+        }
+    }
+
+    /**
+     * @return the strong side's piece
+     */
+    public PieceType getPieceType() {
+        return pieceType;
+    }
+
+    /**
+     * @param pieceType the strong side's piece
+     * @return the usual file name for that endgame, such as {@code KQK.bin}
+     */
+    public static String fileName(PieceType pieceType) {
+        char letter;
+        switch (pieceType) {
+            case QUEEN:
+                letter = 'Q';
+                break;
+            case ROOK:
+                letter = 'R';
+                break;
+            case BISHOP:
+                letter = 'B';
+                break;
+            case KNIGHT:
+                letter = 'N';
+                break;
+            case PAWN:
+                letter = 'P';
+                break;
+            default:
+                throw new IllegalArgumentException("No bitbase for " + pieceType);
+        }
+        return "K" + letter + "K.bin";
+    }
+
+    /**
+     * Looks up the game's current position
+     *
+     * @param game the game to look up
+     * @return the result for the team to move, or null if the position is not
+     *         this endgame
+     */
+    public Outcome probe(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        if (Long.bitCount(board.getOccupied()) != 3) {
+            return null;
+        }
+        TeamColor strong = null;
+        for (TeamColor color : TeamColor.values()) {
+            if (board.getPieces(color, pieceType) != 0) {
+                strong = color;
+            }
+        }
+        if (strong == null) {
+            return null;
+        }
+        TeamColor weak = strong.opposite();
+        if (board.getKingSquare(strong) == ChessBoard.NO_SQUARE || board.getKingSquare(weak) == ChessBoard.NO_SQUARE) {
+            return null;
+        }
+
+        // Flipping the ranks turns black's pieces into white's
+        int flip = (strong == TeamColor.WHITE) ? 0 : 56;
+        int piece = Long.numberOfTrailingZeros(board.getPieces(strong, pieceType));
+        boolean strongToMove = game.getTeamTurn() == strong;
+        int index = index(strongToMove, board.getKingSquare(strong) ^ flip, board.getKingSquare(weak) ^ flip,
+                piece ^ flip);
+        if (!isWin(index)) {
+            return Outcome.DRAW;
+        }
+        return strongToMove ? Outcome.WIN : Outcome.LOSS;
+    }
+
+    /**
+     * @param index the position index
+     * @return whether the strong side wins
+     */
+    boolean isWin(int index) {
+        long word = bits.getLong(HEADER_SIZE + (index >>> 6) * 8);
+        return (word & (1L << index)) != 0;
+    }
+
+    /**
+     * @param strongToMove whether the strong side is to move
+     * @param strongKing   the strong king's square, with the strong side as
+     *                     white
+     * @param weakKing     the weak king's square
+     * @param piece        the strong piece's square
+     * @return the position index
+     */
+    static int index(boolean strongToMove, int strongKing, int weakKing, int piece) {
+        return ((strongToMove ? 0 : 1) << 18) | (strongKing << 12) | (weakKing << 6) | piece;
+    }
+}
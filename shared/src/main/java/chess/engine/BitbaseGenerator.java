@@ -0,0 +1,222 @@
+package chess.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import chess.AttackTables;
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+/**
+ * Computes {@link Bitbase bitbases} by retrograde analysis.
+ * <p>
+ * Every position starts out drawn. Each pass then marks as won the positions
+ * where the strong side can move to a won position, and those where the weak
+ * side is checkmated or every move leads to a won position, until a pass finds
+ * nothing new. A pass only reads the results of the one before, so the
+ * positions are split between threads, 64 to a word of the result.
+ * <p>
+ * Pawn promotions are looked up in the queen and rook bitbases; promoting to a
+ * bishop or knight never wins against a lone king.
+ */
+public final class BitbaseGenerator {
+    private static final PieceType[] ENDGAMES = { PieceType.QUEEN, PieceType.ROOK, PieceType.PAWN };
+
+    private final PieceType pieceType;
+    private final Bitbase queens;
+    private final Bitbase rooks;
+
+    private BitbaseGenerator(PieceType pieceType, Bitbase queens, Bitbase rooks) {
+        this.pieceType = pieceType;
+        this.queens = queens;
+        this.rooks = rooks;
+    }
+
+    /**
+     * Computes the bitbase for a king and one piece against a king
+     *
+     * @param pieceType the strong side's piece, which may not be a king
+     * @return the bitbase
+     */
+    public static Bitbase generate(PieceType pieceType) {
+        if (pieceType == PieceType.KING) {
+            throw new IllegalArgumentException("No bitbase for " + pieceType);
+        }
+        BitbaseGenerator generator;
+        if (pieceType == PieceType.PAWN) {
+            generator = new BitbaseGenerator(pieceType, generate(PieceType.QUEEN), generate(PieceType.ROOK));
+        }
+        else {
+            generator = new BitbaseGenerator(pieceType, null, null);
+        }
+        return Bitbase.of(pieceType, generator.solve());
+    }
+
+    private long[] solve() {
+        long[] wins = new long[Bitbase.POSITIONS / 64];
+        boolean changed = true;
+        while (changed) {
+            long[] previous = wins;
+            long[] next = IntStream.range(0, previous.length).parallel().mapToLong(word -> pass(previous, word))
+                    .toArray();
+            changed = false;
+            for (int word = 0; word < next.length; word++) {
+                if (next[word] != previous[word]) {
+                    changed = true;
+                }
+            }
+            wins = next;
+        }
+        return wins;
+    }
+
+    /**
+     * @return the word of results, with any newly won positions added
+     */
+    private long pass(long[] wins, int word) {
+        long result = wins[word];
+        for (int bit = 0; bit < 64; bit++) {
+            int index = word * 64 + bit;
+            if ((result & (1L << bit)) == 0 && isWon(wins, index)) {
+                result |= 1L << bit;
+            }
+        }
+        return result;
+    }
+
+    private boolean isWon(long[] wins, int index) {
+        boolean strongToMove = (index >>> 18) == 0;
+        int strongKing = (index >>> 12) & 63;
+        int weakKing = (index >>> 6) & 63;
+        int piece = index & 63;
+        if (!isValid(strongToMove, strongKing, weakKing, piece)) {
+            return false;
+        }
+        return strongToMove ? strongWins(wins, strongKing, weakKing, piece)
+                : weakLoses(wins, strongKing, weakKing, piece);
+    }
+
+    private boolean isValid(boolean strongToMove, int strongKing, int weakKing, int piece) {
+        if (strongKing == weakKing || strongKing == piece || weakKing == piece) {
+            return false;
+        }
+        if ((AttackTables.kingAttacks(strongKing) & (1L << weakKing)) != 0) {
+            return false;
+        }
+        if (pieceType == PieceType.PAWN && (piece < 8 || piece >= 56)) {
+            return false;
+        }
+        // The team that just moved may not be left in check
+        long occupied = (1L << strongKing) | (1L << weakKing) | (1L << piece);
+        return !strongToMove || (attacks(piece, occupied) & (1L << weakKing)) == 0;
+    }
+
+    /**
+     * @return whether any strong move reaches a won position
+     */
+    private boolean strongWins(long[] wins, int strongKing, int weakKing, int piece) {
+        // The weak king can never give check, so any move that keeps the kings apart is legal
+        long kingMoves = AttackTables.kingAttacks(strongKing) & ~AttackTables.kingAttacks(weakKing) & ~(1L << piece);
+        for (; kingMoves != 0; kingMoves &= kingMoves - 1) {
+            int to = Long.numberOfTrailingZeros(kingMoves);
+            if (isSet(wins, Bitbase.index(false, to, weakKing, piece))) {
+                return true;
+            }
+        }
+
+        long occupied = (1L << strongKing) | (1L << weakKing) | (1L << piece);
+        if (pieceType == PieceType.PAWN) {
+            int push = piece + 8;
+            if ((occupied & (1L << push)) != 0) {
+                return false;
+            }
+            if (push >= 56) {
+                int promoted = Bitbase.index(false, strongKing, weakKing, push);
+                return queens.isWin(promoted) || rooks.isWin(promoted);
+            }
+            if (isSet(wins, Bitbase.index(false, strongKing, weakKing, push))) {
+                return true;
+            }
+            int doublePush = piece + 16;
+            return piece < 16 && (occupied & (1L << doublePush)) == 0
+                    && isSet(wins, Bitbase.index(false, strongKing, weakKing, doublePush));
+        }
+
+        long pieceMoves = attacks(piece, occupied) & ~occupied;
+        for (; pieceMoves != 0; pieceMoves &= pieceMoves - 1) {
+            int to = Long.numberOfTrailingZeros(pieceMoves);
+            if (isSet(wins, Bitbase.index(false, strongKing, weakKing, to))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the weak king is checkmated or every move reaches a won
+     *         position
+     */
+    private boolean weakLoses(long[] wins, int strongKing, int weakKing, int piece) {
+        // The weak king does not block the squares behind it
+        long attacked = AttackTables.kingAttacks(strongKing)
+                | attacks(piece, (1L << strongKing) | (1L << piece));
+        long moves = AttackTables.kingAttacks(weakKing) & ~attacked;
+        if (moves == 0) {
+            return (attacked & (1L << weakKing)) != 0;
+        }
+        if ((moves & (1L << piece)) != 0) {
+            // Capturing the piece draws
+            return false;
+        }
+        for (; moves != 0; moves &= moves - 1) {
+            int to = Long.numberOfTrailingZeros(moves);
+            if (!isSet(wins, Bitbase.index(true, strongKing, to, piece))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long attacks(int square, long occupied) {
+        switch (pieceType) {
+            case QUEEN:
+                return AttackTables.queenAttacks(square, occupied);
+            case ROOK:
+                return AttackTables.rookAttacks(square, occupied);
+            case BISHOP:
+                return AttackTables.bishopAttacks(square, occupied);
+            case KNIGHT:
+                return AttackTables.knightAttacks(square);
+            case PAWN:
+                return AttackTables.pawnAttacks(TeamColor.WHITE, square);
+            default:
+                throw new IllegalArgumentException("No bitbase for " + pieceType);
+        }
+    }
+
+    private static boolean isSet(long[] wins, int index) {
+        return (wins[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Generates the KQK, KRK and KPK bitbases from the command line
+     *
+     * @param args the directory to write the files to
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: BitbaseGenerator <directory>");
+            System.exit(1);
+        }
+        Path directory = Path.of(args[0]);
+        Files.createDirectories(directory);
+        for (PieceType pieceType : ENDGAMES) {
+            long start = System.nanoTime();
+            Path file = directory.resolve(Bitbase.fileName(pieceType));
+            generate(pieceType).write(file);
+            System.out.printf("%s: %d ms%n", file, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.EncodedMove;
+
+/**
+ * Finds the best move in a position, for computer opponents and analysis.
+ * <p>
+ * The search runs on the calling thread, on a copy of the game, and keeps its
+ * {@link TranspositionTable} between searches so analysing the same game move
+ * after move reuses earlier work. Its memory use is fixed when the engine is
+ * created. One search runs at a time; {@link #stop()} may be called from any
+ * thread.
+ * <p>
+ * Each search gets its own stop flag, made when the search before it returned.
+ * A stop that arrives before the search it was meant for has started is kept
+ * and ends that search at once, instead of being lost when it starts.
+ * <p>
+ * With more than one {@link SearchLimits#threads() thread}, the search uses
+ * Lazy SMP: helper threads search the same position on their own copies of the
+ * game and share only the transposition table, filling it with results the
+ * calling thread then finds instead of searching. Half the helpers start one
+ * ply deeper, so the threads spread over different parts of the tree. The
+ * result comes from whichever thread finished the deepest iteration.
+ */
+public final class Engine {
+    /**
+     * The transposition table size used by {@link #Engine()}
+     */
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final TranspositionTable table;
+    // The flag of the running search, or of the next one if none is running
+    private volatile AtomicBoolean stopped = new AtomicBoolean();
+    private ExecutorService helperPool;
+
+    public Engine() {
+        this(DEFAULT_HASH_MEGABYTES);
+    }
+
+    /**
+     * @param hashMegabytes the size of the transposition table
+     */
+    public Engine(int hashMegabytes) {
+        table = new TranspositionTable(hashMegabytes);
+    }
+
+    /**
+     * Searches for the best move for the team whose turn it is
+     *
+     * @param game   the game to search; it is not changed
+     * @param limits how deep and how long to search
+     * @return the best move found and its score
+     */
+    public synchronized SearchResult search(ChessGame game, SearchLimits limits) {
+        long start = System.nanoTime();
+        long deadline = 0;
+        long softDeadline = 0;
+        if (limits.timeMillis() > 0) {
+            long budget = TimeUnit.MILLISECONDS.toNanos(limits.timeMillis());
+            deadline = start + budget;
+            // An iteration takes longer than all the ones before it, so do not start one past half the time
+            softDeadline = start + budget / 2;
+        }
+
+        AtomicBoolean stopped = this.stopped;
+        table.newSearch();
+        List<Searcher> helpers = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 1; i < limits.threads(); i++) {
+            Searcher helper = new Searcher(new ChessGame(game), table, stopped, deadline);
+            int startDepth = 1 + i % 2;
+            helpers.add(helper);
+            running.add(helperPool().submit(() -> helper.run(startDepth, limits.depth(), 0)));
+        }
+
+        Searcher main = new Searcher(new ChessGame(game), table, stopped, deadline);
+        main.run(1, limits.depth(), softDeadline);
+        stopped.set(true);
+        this.stopped = new AtomicBoolean();
+
+        Searcher best = main;
+        long nodes = main.getNodes();
+        for (int i = 0; i < helpers.size(); i++) {
+            await(running.get(i));
+            Searcher helper = helpers.get(i);
+            nodes += helper.getNodes();
+            if (helper.getCompletedDepth() > best.getCompletedDepth()) {
+                best = helper;
+            }
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return result(best, nodes, millis);
+    }
+
+    /**
+     * Stops the running search, which then returns the best move found so far.
+     * If no search is running, the next one stops as soon as it starts.
+     */
+    public void stop() {
+        stopped.set(true);
+    }
+
+    /**
+     * Forgets everything learned in earlier searches
+     */
+    public synchronized void clear() {
+        table.clear();
+    }
+
+    /**
+     * The helper threads are daemons and are only created once a search asks
+     * for more than one thread. Idle ones exit after a minute.
+     */
+    private ExecutorService helperPool() {
+        if (helperPool == null) {
+            helperPool = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "engine-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return helperPool;
+    }
+
+    private static void await(Future<?> helper) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                helper.get();
+                break;
+            }
+            catch (InterruptedException e) {
+                // The helper has already been told to stop, so it will finish soon
+                interrupted = true;
+            }
+            catch (ExecutionException e) {
+                throw new RuntimeException("Search thread failed", e.getCause());
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SearchResult result(Searcher searcher, long nodes, long millis) {
+        int[] line = searcher.getBestLine();
+        List<ChessMove> principalVariation = new ArrayList<>(line.length);
+        for (int move : line) {
+            principalVariation.add(EncodedMove.toChessMove(move));
+        }
+        ChessMove bestMove = principalVariation.isEmpty() ? null : principalVariation.get(0);
+        return new SearchResult(bestMove, searcher.getBestScore(), searcher.getCompletedDepth(), nodes, millis,
+                List.copyOf(principalVariation));
+    }
+}
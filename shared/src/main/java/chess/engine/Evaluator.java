@@ -0,0 +1,120 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+import chess.PieceSquareTables;
+
+/**
+ * Scores positions without searching, for the leaves of the search tree.
+ * <p>
+ * Material and piece placement come from the {@link PieceSquareTables} sums
+ * the board keeps up to date as moves are made and taken back, so they cost
+ * nothing to read. Pawn structure (doubled, isolated and passed pawns) is
+ * worked out from the pawn bitboards and cached by pawn key. The middlegame
+ * and endgame scores are then blended by the game phase, so for example the
+ * king is kept safe while queens are on the board but moves to the centre once
+ * they are gone.
+ */
+final class Evaluator {
+    // Indexed by piece type ordinal, in centipawns; used to order captures
+    static final int[] PIECE_VALUES = { 0, 900, 330, 320, 500, 100 };
+
+    private static final int PAWN_HASH_ENTRIES = 1 << 14;
+
+    private static final long FILE_A = 0x0101010101010101L;
+    // Indexed by color ordinal and square: the squares in front of a pawn on its own and the adjacent files
+    private static final long[][] PASSED_MASKS = new long[2][64];
+    // Indexed by file: the adjacent files
+    private static final long[] ADJACENT_FILES = new long[8];
+
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -15;
+    private static final int ISOLATED_ENDGAME = -10;
+    // Indexed by how many ranks the pawn has advanced from its own side
+    private static final int[] PASSED_MIDGAME = { 0, 5, 10, 15, 25, 40, 60, 0 };
+    private static final int[] PASSED_ENDGAME = { 0, 10, 20, 35, 60, 90, 130, 0 };
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            if (file > 0) {
+                ADJACENT_FILES[file] |= FILE_A << (file - 1);
+            }
+            if (file < 7) {
+                ADJACENT_FILES[file] |= FILE_A << (file + 1);
+            }
+        }
+        for (int square = 0; square < 64; square++) {
+            long files = ADJACENT_FILES[square % 8] | (FILE_A << (square % 8));
+            int rank = square / 8;
+            long above = (rank == 7) ? 0 : -1L << (8 * (rank + 1));
+            long below = (1L << (8 * rank)) - 1;
+            PASSED_MASKS[TeamColor.WHITE.ordinal()][square] = files & above;
+            PASSED_MASKS[TeamColor.BLACK.ordinal()][square] = files & below;
+        }
+    }
+
+    private final PawnHashTable pawnTable = new PawnHashTable(PAWN_HASH_ENTRIES);
+
+    /**
+     * @param game the position to score
+     * @return the score in centipawns, positive when the team to move is ahead
+     */
+    int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int pawns = pawnTable.probe(board.getPawnKey());
+        if (pawns == PawnHashTable.MISSING) {
+            pawns = pawnStructure(board);
+            pawnTable.store(board.getPawnKey(), pawns);
+        }
+        int midgame = board.getMidgameScore() + PawnHashTable.midgame(pawns);
+        int endgame = board.getEndgameScore() + PawnHashTable.endgame(pawns);
+
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return (game.getTeamTurn() == TeamColor.WHITE) ? score : -score;
+    }
+
+    /**
+     * Scores both sides' pawn structure
+     *
+     * @return the middlegame and endgame scores for white, packed with
+     *         {@link PawnHashTable#pack(int, int)}
+     */
+    static int pawnStructure(ChessBoard board) {
+        long white = board.getPieces(TeamColor.WHITE, PieceType.PAWN);
+        long black = board.getPieces(TeamColor.BLACK, PieceType.PAWN);
+        int midgame = 0;
+        int endgame = 0;
+        for (TeamColor color : TeamColor.values()) {
+            long own = (color == TeamColor.WHITE) ? white : black;
+            long enemy = (color == TeamColor.WHITE) ? black : white;
+            int sign = (color == TeamColor.WHITE) ? 1 : -1;
+
+            for (int file = 0; file < 8; file++) {
+                int count = Long.bitCount(own & (FILE_A << file));
+                if (count == 0) {
+                    continue;
+                }
+                midgame += sign * (count - 1) * DOUBLED_MIDGAME;
+                endgame += sign * (count - 1) * DOUBLED_ENDGAME;
+                if ((own & ADJACENT_FILES[file]) == 0) {
+                    midgame += sign * count * ISOLATED_MIDGAME;
+                    endgame += sign * count * ISOLATED_ENDGAME;
+                }
+            }
+
+            for (long remaining = own; remaining != 0; remaining &= remaining - 1) {
+                int square = Long.numberOfTrailingZeros(remaining);
+                if ((enemy & PASSED_MASKS[color.ordinal()][square]) == 0) {
+                    int advanced = (color == TeamColor.WHITE) ? square / 8 : 7 - square / 8;
+                    midgame += sign * PASSED_MIDGAME[advanced];
+                    endgame += sign * PASSED_ENDGAME[advanced];
+                }
+            }
+        }
+        return PawnHashTable.pack(midgame, endgame);
+    }
+}
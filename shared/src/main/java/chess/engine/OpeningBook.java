@@ -0,0 +1,270 @@
+package chess.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPiece.PieceType;
+import chess.ChessPosition;
+
+/**
+ * Looks up opening moves in a book file in the Polyglot {@code .bin} layout.
+ * <p>
+ * A book is a sorted array of 16-byte big-endian entries: the position key,
+ * the move, a weight and 4 unused bytes. The file is memory mapped read-only
+ * and searched in place, so opening a book costs no heap however large it is,
+ * and one instance can be shared by every game and thread on the server.
+ * <p>
+ * Positions are keyed by {@link #polyglotKey(ChessGame)}, with the random
+ * numbers from the Polyglot specification, so books made by other Polyglot
+ * tools can be used as well as ones made with a {@link Builder}. Moves are
+ * stored as Polyglot stores them, with castling written as the king capturing
+ * its own rook.
+ */
+public final class OpeningBook {
+    private static final int ENTRY_SIZE = 16;
+    // Indexed by the Polyglot promotion number
+    private static final PieceType[] PROMOTIONS = { null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK,
+            PieceType.QUEEN };
+
+    /**
+     * A move found in the book
+     *
+     * @param move   the move
+     * @param weight how often the move should be played relative to the other
+     *               moves from the same position
+     */
+    public record BookMove(ChessMove move, int weight) {}
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(ByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_SIZE;
+    }
+
+    /**
+     * Maps a book file into memory. The mapping stays valid after the file is
+     * closed, until the book is garbage collected.
+     *
+     * @param file the book file
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a whole number of
+     *                     entries
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length % ENTRY_SIZE != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return new OpeningBook(mapped);
+        }
+    }
+
+    /**
+     * @return the number of entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Computes the key Polyglot books use for a position. It is not the same as
+     * {@link ChessGame#positionKey()}, which uses its own random numbers.
+     *
+     * @param game the game whose current position to key
+     * @return the Polyglot key
+     */
+    public static long polyglotKey(ChessGame game) {
+        return PolyglotKey.of(game);
+    }
+
+    /**
+     * Finds the book moves for the game's current position. Entries that are
+     * not legal in the position, from a key collision or a corrupt file, are
+     * left out.
+     *
+     * @param game the game to look up
+     * @return the legal book moves, in the order they appear in the book, which
+     *         is usually best first
+     */
+    public List<BookMove> lookup(ChessGame game) {
+        long key = polyglotKey(game);
+        List<BookMove> moves = new ArrayList<>();
+        for (int i = firstEntry(key); i < size && entryKey(i) == key; i++) {
+            int offset = i * ENTRY_SIZE;
+            ChessMove move = decodeMove(game.getBoard(), Short.toUnsignedInt(entries.getShort(offset + 8)));
+            int weight = Short.toUnsignedInt(entries.getShort(offset + 10));
+            if (move != null && game.isLegal(move)) {
+                moves.add(new BookMove(move, weight));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Picks a book move at random, in proportion to the moves' weights
+     *
+     * @param game   the game to look up
+     * @param random the source of randomness
+     * @return the chosen move, or null if the position is not in the book
+     */
+    public ChessMove pick(ChessGame game, RandomGenerator random) {
+        List<BookMove> moves = lookup(game);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.weight();
+        }
+        if (total == 0) {
+            // Weights of zero mean the moves are known but should not be played
+            return null;
+        }
+        int choice = random.nextInt(total);
+        for (BookMove move : moves) {
+            choice -= move.weight();
+            if (choice < 0) {
+                return move.move();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Binary searches the entries, which are sorted by key as unsigned numbers
+     *
+     * @return the index of the first entry with the key, or of the first with a
+     *         greater key if there is none
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entryKey(middle), key) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long entryKey(int index) {
+        // Absolute reads leave the buffer's position alone, so lookups are safe from any thread
+        return entries.getLong(index * ENTRY_SIZE);
+    }
+
+    private static ChessMove decodeMove(ChessBoard board, int move) {
+        int to = move & 63;
+        int from = (move >> 6) & 63;
+        int promotion = (move >> 12) & 7;
+        if (promotion >= PROMOTIONS.length) {
+            return null;
+        }
+        ChessPiece piece = board.getPiece(from);
+        if (piece != null && piece.getPieceType() == PieceType.KING && Math.abs(to - from) > 2 && to / 8 == from / 8) {
+            // The king's destination when castling towards the rook on that square
+            to = (to > from) ? from + 2 : from - 2;
+        }
+        return new ChessMove(ChessPosition.ofSquare(from), ChessPosition.ofSquare(to), PROMOTIONS[promotion]);
+    }
+
+    private static int encodeMove(ChessBoard board, ChessMove move) {
+        int from = ChessBoard.squareIndex(move.getStartPosition());
+        int to = ChessBoard.squareIndex(move.getEndPosition());
+        ChessPiece piece = board.getPiece(from);
+        if (piece != null && piece.getPieceType() == PieceType.KING && Math.abs(to - from) == 2) {
+            to = (to > from) ? from + 3 : from - 4;
+        }
+        int promotion = Arrays.asList(PROMOTIONS).indexOf(move.getPromotionPiece());
+        return (promotion << 12) | (from << 6) | to;
+    }
+
+    /**
+     * Collects book moves and writes them out as a book file
+     */
+    public static final class Builder {
+        private record Entry(long key, int move) {}
+
+        private final Map<Entry, Integer> weights = new HashMap<>();
+
+        /**
+         * Adds a move to the book. Adding a move that is already in the book for
+         * the position adds to its weight.
+         *
+         * @param game   the position the move is played from
+         * @param move   a legal move in that position
+         * @param weight how often the move should be played, from 0 to 65535
+         * @return this builder
+         * @throws IllegalArgumentException if the move is not legal or the weight
+         *                                  is out of range
+         */
+        public Builder add(ChessGame game, ChessMove move, int weight) {
+            if (!game.isLegal(move)) {
+                throw new IllegalArgumentException("Illegal book move: " + move);
+            }
+            if (weight < 0 || weight > 0xFFFF) {
+                throw new IllegalArgumentException("Book weight out of range: " + weight);
+            }
+            Entry entry = new Entry(polyglotKey(game), encodeMove(game.getBoard(), move));
+            weights.merge(entry, weight, (a, b) -> Math.min(a + b, 0xFFFF));
+            return this;
+        }
+
+        /**
+         * Writes the book, sorted by key and then from the heaviest move down
+         *
+         * @param out where to write the book; it is not closed
+         * @throws IOException if writing fails
+         */
+        public void write(OutputStream out) throws IOException {
+            List<Entry> sorted = new ArrayList<>(weights.keySet());
+            sorted.sort((a, b) -> {
+                int order = Long.compareUnsigned(a.key(), b.key());
+                if (order == 0) {
+                    order = Integer.compare(weights.get(b), weights.get(a));
+                }
+                return (order == 0) ? Integer.compare(a.move(), b.move()) : order;
+            });
+            ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE);
+            for (Entry entry : sorted) {
+                buffer.clear();
+                buffer.putLong(entry.key()).putShort((short) entry.move()).putShort(weights.get(entry).shortValue());
+                buffer.putInt(0);
+                out.write(buffer.array());
+            }
+        }
+
+        /**
+         * Writes the book to a file, replacing it if it exists
+         *
+         * @param file the book file
+         * @throws IOException if writing fails
+         */
+        public void write(Path file) throws IOException {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                write(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package chess.engine;
+
+/**
+ * Caches pawn structure scores by {@link chess.ChessBoard#getPawnKey() pawn
+ * key}. Pawns move rarely compared to the other pieces, so most positions in a
+ * search share their pawn structure with positions already scored. Each search
+ * thread has its own table, so no synchronization is needed.
+ * <p>
+ * The middlegame and endgame scores are packed into one {@code int}, the
+ * middlegame score in the high 16 bits.
+ */
+final class PawnHashTable {
+    /**
+     * Returned by {@link #probe(long)} when the structure is not stored; no
+     * real pawn structure scores this badly
+     */
+    static final int MISSING = Integer.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] scores;
+    private final int mask;
+
+    /**
+     * @param entries the number of entries, a power of two
+     */
+    PawnHashTable(int entries) {
+        keys = new long[entries];
+        scores = new int[entries];
+        mask = entries - 1;
+        // Key 0 is the position with no pawns, which scores 0 and so is already stored
+    }
+
+    /**
+     * @param pawnKey the pawn key
+     * @return the packed scores, or {@link #MISSING}
+     */
+    int probe(long pawnKey) {
+        int index = (int) pawnKey & mask;
+        return (keys[index] == pawnKey) ? scores[index] : MISSING;
+    }
+
+    /**
+     * @param pawnKey the pawn key
+     * @param packed  the scores, packed with {@link #pack(int, int)}
+     */
+    void store(long pawnKey, int packed) {
+        int index = (int) pawnKey & mask;
+        keys[index] = pawnKey;
+        scores[index] = packed;
+    }
+
+    static int pack(int midgame, int endgame) {
+        return (midgame << 16) + endgame;
+    }
+
+    static int midgame(int packed) {
+        return (packed + 0x8000) >> 16;
+    }
+
+    static int endgame(int packed) {
+        return (short) packed;
+    }
+}
@@ -0,0 +1,66 @@
+package chess.engine;
+
+/**
+ * How far an {@link Engine} may search, and with how many threads. The search
+ * stops at whichever limit it reaches first.
+ *
+ * @param depth      the deepest iteration to search, in plies
+ * @param timeMillis the most time to spend, or 0 for no time limit
+ * @param threads    how many threads to search with
+ */
+public record SearchLimits(int depth, long timeMillis, int threads) {
+    /**
+     * The deepest search allowed
+     */
+    public static final int MAX_DEPTH = 64;
+    /**
+     * The most threads one search can use
+     */
+    public static final int MAX_THREADS = 256;
+
+    public SearchLimits {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException(String.format("Search depth must be 1 to %d", MAX_DEPTH));
+        }
+        if (timeMillis < 0) {
+            throw new IllegalArgumentException("Search time cannot be negative");
+        }
+        if (threads < 1 || threads > MAX_THREADS) {
+            throw new IllegalArgumentException(String.format("Search threads must be 1 to %d", MAX_THREADS));
+        }
+    }
+
+    /**
+     * Creates single-threaded limits
+     *
+     * @param depth      the deepest iteration to search, in plies
+     * @param timeMillis the most time to spend, or 0 for no time limit
+     */
+    public SearchLimits(int depth, long timeMillis) {
+        this(depth, timeMillis, 1);
+    }
+
+    /**
+     * @param threads how many threads to search with
+     * @return these limits with a different thread count
+     */
+    public SearchLimits withThreads(int threads) {
+        return new SearchLimits(depth, timeMillis, threads);
+    }
+
+    /**
+     * @param depth the deepest iteration to search, in plies
+     * @return limits with no time limit
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0);
+    }
+
+    /**
+     * @param timeMillis the most time to spend
+     * @return limits that search as deep as the time allows
+     */
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, timeMillis);
+    }
+}
@@ -0,0 +1,46 @@
+package chess.engine;
+
+import java.util.List;
+
+import chess.ChessMove;
+
+/**
+ * The outcome of an {@link Engine} search
+ *
+ * @param bestMove           the move to play, or null if the game is over
+ * @param score              the score in centipawns for the team to move, or
+ *                           a mate score near {@link #MATE_SCORE}
+ * @param depth              the deepest iteration that finished
+ * @param nodes              how many positions were searched
+ * @param timeMillis         how long the search took
+ * @param principalVariation the expected line of play, starting with the
+ *                           best move
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long timeMillis,
+        List<ChessMove> principalVariation) {
+    /**
+     * The score of delivering checkmate now. Being mated in {@code n} plies
+     * scores {@code -(MATE_SCORE - n)}, and mating in {@code n} plies scores
+     * {@code MATE_SCORE - n}.
+     */
+    public static final int MATE_SCORE = 31000;
+
+    /**
+     * @return True if the score is a forced mate for either team
+     */
+    public boolean isMate() {
+        return Math.abs(score) > MATE_SCORE - Searcher.MAX_PLY;
+    }
+
+    /**
+     * @return the number of moves until mate, negative if the team to move is
+     *         being mated, or 0 if there is no forced mate
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int moves = (MATE_SCORE - Math.abs(score) + 1) / 2;
+        return (score > 0) ? moves : -moves;
+    }
+}
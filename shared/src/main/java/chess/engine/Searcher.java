@@ -0,0 +1,410 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece.PieceType;
+import chess.EncodedMove;
+import chess.MoveList;
+
+/**
+ * One iterative-deepening alpha-beta search over its own copy of a game.
+ * <p>
+ * Each iteration is a principal variation search: the first move gets the full
+ * window and the rest are tried with a null window first. Moves are tried in
+ * order of transposition table move, captures by most valuable victim and
+ * least valuable attacker, killer moves, then the history heuristic. Checks
+ * are extended by a ply, and the leaves are searched for captures until the
+ * position is quiet.
+ */
+final class Searcher {
+    /**
+     * The deepest ply the search can reach, including extensions
+     */
+    static final int MAX_PLY = 128;
+
+    private static final int INFINITY = 32000;
+    private static final int MATE = SearchResult.MATE_SCORE;
+    private static final int MAX_MOVES = 256;
+
+    private static final int TABLE_MOVE_ORDER = 1 << 30;
+    private static final int CAPTURE_ORDER = 1 << 24;
+    private static final int KILLER_ORDER = 1 << 23;
+    private static final int MAX_HISTORY = 1 << 20;
+
+    // How often, in nodes, to look at the clock
+    private static final int TIME_CHECK_NODES = 2048;
+
+    private final ChessGame game;
+    private final TranspositionTable table;
+    private final AtomicBoolean stopped;
+    private final long deadline;
+    private final Evaluator evaluator = new Evaluator();
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] orderScores = new int[MAX_PLY + 1][MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[] history = new int[64 * 64];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    private long nodes;
+    private int completedDepth;
+    private int bestScore;
+    private int[] bestLine = new int[0];
+
+    /**
+     * @param game     the position to search; it is changed while searching and
+     *                 should not be shared
+     * @param table    the transposition table, which may be shared
+     * @param stopped  set to stop the search, by the caller or when time runs out
+     * @param deadline the {@link System#nanoTime()} to stop at, or 0 for none
+     */
+    Searcher(ChessGame game, TranspositionTable table, AtomicBoolean stopped, long deadline) {
+        this.game = game;
+        this.table = table;
+        this.stopped = stopped;
+        this.deadline = deadline;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches one ply deeper each iteration until the depth or time runs out,
+     * keeping the result of the last iteration that finished
+     *
+     * @param startDepth   the first iteration to search
+     * @param maxDepth     the deepest iteration to search
+     * @param softDeadline the {@link System#nanoTime()} after which no new
+     *                     iteration is started, or 0 for none
+     */
+    void run(int startDepth, int maxDepth, long softDeadline) {
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            int score = alphaBeta(depth, 0, -INFINITY, INFINITY);
+            if (stopped.get() && (completedDepth > 0 || pvLength[0] == 0)) {
+                break;
+            }
+            bestScore = score;
+            bestLine = Arrays.copyOf(pv[0], pvLength[0]);
+            completedDepth = depth;
+            if (stopped.get()) {
+                break;
+            }
+            // A mate this close has been proven, so searching deeper cannot change it
+            if (Math.abs(score) > MATE - MAX_PLY && MATE - Math.abs(score) <= depth) {
+                break;
+            }
+            if (softDeadline != 0 && System.nanoTime() - softDeadline >= 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the deepest iteration that finished
+     */
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return the score of the deepest iteration that finished
+     */
+    int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @return the principal variation of the deepest iteration that finished,
+     *         as encoded moves
+     */
+    int[] getBestLine() {
+        return bestLine;
+    }
+
+    /**
+     * @return how many positions have been searched
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    private int alphaBeta(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (ply > 0) {
+            if (game.getHalfmoveClock() >= 100 || game.isRepetition() || game.hasInsufficientMaterial()) {
+                return 0;
+            }
+            // No line can do better than mating right away
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(ply, alpha, beta);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = game.positionKey();
+        long entry = table.probe(key);
+        int tableMove = 0;
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        game.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        orderMoves(moves, ply, tableMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            game.doMove(move);
+            int score;
+            if (i == 0) {
+                score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+            }
+            else {
+                score = -alphaBeta(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) {
+                    score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            game.undoMove();
+            if (stopped.get()) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (isQuiet(move)) {
+                            rememberCutoff(move, ply, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound;
+        if (best >= beta) {
+            bound = TranspositionTable.LOWER;
+        }
+        else if (best > originalAlpha) {
+            bound = TranspositionTable.EXACT;
+        }
+        else {
+            bound = TranspositionTable.UPPER;
+        }
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches only captures and promotions, unless in check, so the position
+     * is not scored in the middle of an exchange
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return evaluator.evaluate(game);
+        }
+
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluator.evaluate(game);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList moves = moveLists[ply];
+        game.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        orderMoves(moves, ply, 0);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            if (!inCheck && isQuiet(move)) {
+                // Captures and promotions are ordered first, so the rest are quiet too
+                break;
+            }
+            game.doMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped.get()) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node, checking the clock every so often
+     *
+     * @return True if the search has been stopped
+     */
+    private boolean countNode() {
+        if (++nodes % TIME_CHECK_NODES == 0 && deadline != 0 && System.nanoTime() - deadline >= 0) {
+            stopped.set(true);
+        }
+        return stopped.get();
+    }
+
+    private void orderMoves(MoveList moves, int ply, int tableMove) {
+        ChessBoard board = game.getBoard();
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == tableMove) {
+                score = TABLE_MOVE_ORDER;
+            }
+            else if (!isQuiet(move)) {
+                int from = EncodedMove.from(move);
+                PieceType attacker = board.getPiece(from).getPieceType();
+                score = CAPTURE_ORDER - Evaluator.PIECE_VALUES[attacker.ordinal()] / 10;
+                if (EncodedMove.hasFlag(move, EncodedMove.EN_PASSANT)) {
+                    score += Evaluator.PIECE_VALUES[PieceType.PAWN.ordinal()] * 10;
+                }
+                else if (EncodedMove.hasFlag(move, EncodedMove.CAPTURE)) {
+                    PieceType victim = board.getPiece(EncodedMove.to(move)).getPieceType();
+                    score += Evaluator.PIECE_VALUES[victim.ordinal()] * 10;
+                }
+                PieceType promotion = EncodedMove.promotion(move);
+                if (promotion != null) {
+                    score += Evaluator.PIECE_VALUES[promotion.ordinal()] * 10;
+                }
+            }
+            else if (move == killers[ply][0]) {
+                score = KILLER_ORDER + 1;
+            }
+            else if (move == killers[ply][1]) {
+                score = KILLER_ORDER;
+            }
+            else {
+                score = history[EncodedMove.from(move) * 64 + EncodedMove.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best remaining move into place, so only as many moves are
+     * sorted as are searched before a cutoff
+     */
+    private int nextMove(MoveList moves, int ply, int index) {
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    private void rememberCutoff(int move, int ply, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int index = EncodedMove.from(move) * 64 + EncodedMove.to(move);
+        history[index] += depth * depth;
+        if (history[index] >= MAX_HISTORY) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] /= 2;
+            }
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        for (int i = ply + 1; i < pvLength[ply + 1]; i++) {
+            pv[ply][i] = pv[ply + 1][i];
+        }
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
+
+    private static boolean isQuiet(int move) {
+        return !EncodedMove.hasFlag(move, EncodedMove.CAPTURE) && EncodedMove.promotion(move) == null;
+    }
+
+    /**
+     * Mate scores are stored relative to the position rather than the root, so
+     * they stay right when the position is reached at another ply
+     */
+    private static int toTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score < -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score < -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
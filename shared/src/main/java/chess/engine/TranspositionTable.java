@@ -0,0 +1,157 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results, keyed by
+ * {@link chess.ChessGame#positionKey() Zobrist key}, so positions reached by
+ * different move orders are searched once.
+ * <p>
+ * Each entry is two {@code long}s: the packed data, and the key XORed with the
+ * data. A read only counts as a hit if XORing the two gives back the key, so
+ * an entry half overwritten by another thread is treated as a miss. This lets
+ * searches on several threads share one table without any locking.
+ * <p>
+ * Data layout, from the low bits: the {@link chess.EncodedMove} (18 bits), the
+ * score plus 32768 (16 bits), the depth (8 bits), the bound (2 bits) and the
+ * search generation (8 bits).
+ */
+public final class TranspositionTable {
+    /**
+     * The score is exact
+     */
+    public static final int EXACT = 1;
+    /**
+     * The score is at least the stored value
+     */
+    public static final int LOWER = 2;
+    /**
+     * The score is at most the stored value
+     */
+    public static final int UPPER = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int MAX_ENTRIES = 1 << 29;
+
+    private static final int MOVE_MASK = (1 << 18) - 1;
+    private static final int SCORE_SHIFT = 18;
+    private static final int DEPTH_SHIFT = 34;
+    private static final int BOUND_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 44;
+
+    private final long[] entries;
+    private final int mask;
+    private int generation;
+
+    /**
+     * @param megabytes the size of the table; it is rounded down to a power of
+     *                  two entries
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        long requested = Math.min((long) megabytes * (1 << 20) / ENTRY_BYTES, MAX_ENTRIES);
+        int size = Integer.highestOneBit((int) requested);
+        entries = new long[2 * size];
+        mask = size - 1;
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param key the position key
+     * @return the packed entry data, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        int index = 2 * (int) (key & mask);
+        long data = entries[index + 1];
+        return ((entries[index] ^ data) == key) ? data : 0;
+    }
+
+    /**
+     * Stores a search result, replacing the entry in its slot if that is from
+     * an older search, for a different position, or searched less deeply
+     *
+     * @param key   the position key
+     * @param move  the best move found, or 0 for none
+     * @param score the score, between -32768 and 32767
+     * @param depth the depth searched, 0 to 255
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = 2 * (int) (key & mask);
+        long old = entries[index + 1];
+        boolean sameKey = (entries[index] ^ old) == key;
+        if (sameKey && old != 0) {
+            if (bound != EXACT && generation(old) == generation && depth < depth(old)) {
+                return;
+            }
+            if (move == 0) {
+                move = move(old);
+            }
+        }
+        long data = (move & MOVE_MASK) | ((long) (score + 32768) << SCORE_SHIFT) | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT) | ((long) generation << GENERATION_SHIFT);
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    /**
+     * Starts a new search, so entries from earlier searches are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table, e.g. before analysing an unrelated game
+     */
+    public void clear() {
+        Arrays.fill(entries, 0);
+        generation = 0;
+    }
+
+    /**
+     * @param data entry data from {@link #probe(long)}
+     * @return the stored move, or 0 for none
+     */
+    public static int move(long data) {
+        return (int) data & MOVE_MASK;
+    }
+
+    /**
+     * @param data entry data from {@link #probe(long)}
+     * @return the stored score
+     */
+    public static int score(long data) {
+        return (int) (data >>> SCORE_SHIFT & 0xFFFF) - 32768;
+    }
+
+    /**
+     * @param data entry data from {@link #probe(long)}
+     * @return the depth the score was searched to
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * @param data entry data from {@link #probe(long)}
+     * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+}
@@ -1,17 +1,33 @@
 package websocket.messages;
 
 import chess.ChessGame;
+import chess.GameSnapshot;
 
 public class LoadGame extends ServerMessage {
 
-    public ChessGame game;
+    public GameSnapshot game;
 
     public LoadGame(ChessGame game) {
+        this(game.snapshot());
+    }
+
+    /**
+     * @param snapshot the position to send, written as a game with no move
+     *                 history
+     */
+    public LoadGame(GameSnapshot snapshot) {
         super(ServerMessageType.LOAD_GAME);
-        this.game = game;
+        this.game = snapshot;
     }
 
-    public ChessGame getGame() {
+    public GameSnapshot getSnapshot() {
         return game;
     }
+
+    /**
+     * @return a new game in the sent position
+     */
+    public ChessGame getGame() {
+        return game.toGame();
+    }
 }
@@ -0,0 +1,54 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import chess.ChessGame.TeamColor;
+
+public class AttackTablesTests {
+
+    @Test
+    @DisplayName("Rook Attacks on Empty Board")
+    public void rookAttacksEmptyBoard() {
+        assertEquals(0x01010101010101FEL, AttackTables.rookAttacks(0, 0L));
+        assertEquals(0x7F80808080808080L, AttackTables.rookAttacks(63, 0L));
+    }
+
+    @Test
+    @DisplayName("Rook Attacks Stop at Blockers")
+    public void rookAttacksBlocked() {
+        // Rook on d4 with blockers on d6 and f4
+        int d4 = ChessBoard.squareIndex(4, 4);
+        long occupied = (1L << ChessBoard.squareIndex(6, 4)) | (1L << ChessBoard.squareIndex(4, 6));
+        long expected = 0x0000080837080808L;
+        assertEquals(expected, AttackTables.rookAttacks(d4, occupied));
+    }
+
+    @Test
+    @DisplayName("Bishop and Queen Attacks")
+    public void bishopAndQueenAttacks() {
+        // Bishop on c1 with a blocker on e3
+        int c1 = ChessBoard.squareIndex(1, 3);
+        long occupied = 1L << ChessBoard.squareIndex(3, 5);
+        long expected = (1L << ChessBoard.squareIndex(2, 2)) | (1L << ChessBoard.squareIndex(3, 1))
+                | (1L << ChessBoard.squareIndex(2, 4)) | (1L << ChessBoard.squareIndex(3, 5));
+        assertEquals(expected, AttackTables.bishopAttacks(c1, occupied));
+        assertEquals(expected | AttackTables.rookAttacks(c1, occupied), AttackTables.queenAttacks(c1, occupied));
+    }
+
+    @Test
+    @DisplayName("Leaper Attacks")
+    public void leaperAttacks() {
+        // Knight in the corner only reaches b3 and c2
+        assertEquals((1L << ChessBoard.squareIndex(3, 2)) | (1L << ChessBoard.squareIndex(2, 3)),
+                AttackTables.knightAttacks(0));
+        assertEquals(8, Long.bitCount(AttackTables.kingAttacks(ChessBoard.squareIndex(4, 4))));
+        // Pawns on the a file only attack toward the b file
+        assertEquals(1L << ChessBoard.squareIndex(3, 2),
+                AttackTables.pawnAttacks(TeamColor.WHITE, ChessBoard.squareIndex(2, 1)));
+        assertEquals(1L << ChessBoard.squareIndex(6, 2),
+                AttackTables.pawnAttacks(TeamColor.BLACK, ChessBoard.squareIndex(7, 1)));
+    }
+}
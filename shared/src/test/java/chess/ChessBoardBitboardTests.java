@@ -0,0 +1,142 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+public class ChessBoardBitboardTests {
+
+    @Test
+    @DisplayName("Reset Board Bitboards")
+    public void resetBoardBitboards() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        assertEquals(0x000000000000FFFFL, board.getOccupancy(TeamColor.WHITE));
+        assertEquals(0xFFFF000000000000L, board.getOccupancy(TeamColor.BLACK));
+        assertEquals(0x1000000000000000L, board.getPieces(TeamColor.BLACK, PieceType.KING));
+        assertEquals(0x0000000000000010L, board.getPieces(TeamColor.WHITE, PieceType.KING));
+    }
+
+    @Test
+    @DisplayName("Replace and Remove Piece")
+    public void replaceAndRemovePiece() {
+        ChessBoard board = new ChessBoard();
+        ChessPosition position = new ChessPosition(4, 5);
+        int square = ChessBoard.squareIndex(position);
+
+        board.addPiece(position, new ChessPiece(TeamColor.WHITE, PieceType.KNIGHT));
+        board.addPiece(position, new ChessPiece(TeamColor.BLACK, PieceType.QUEEN));
+
+        assertEquals(new ChessPiece(TeamColor.BLACK, PieceType.QUEEN), board.getPiece(position));
+        assertEquals(0L, board.getPieces(TeamColor.WHITE, PieceType.KNIGHT));
+        assertEquals(1L << square, board.getOccupied());
+
+        board.addPiece(position, null);
+        assertNull(board.getPiece(position));
+        assertEquals(0L, board.getOccupied());
+    }
+
+    @Test
+    @DisplayName("Tracked King Square")
+    public void trackedKingSquare() {
+        ChessBoard board = new ChessBoard();
+        assertEquals(ChessBoard.NO_SQUARE, board.getKingSquare(TeamColor.WHITE));
+
+        board.resetBoard();
+        assertEquals(ChessBoard.squareIndex(1, 5), board.getKingSquare(TeamColor.WHITE));
+        assertEquals(ChessBoard.squareIndex(8, 5), board.getKingSquare(TeamColor.BLACK));
+
+        board.addPiece(new ChessPosition(1, 5), null);
+        board.addPiece(new ChessPosition(2, 6), new ChessPiece(TeamColor.WHITE, PieceType.KING));
+        assertEquals(ChessBoard.squareIndex(2, 6), board.getKingSquare(TeamColor.WHITE));
+        assertEquals(7, board.getPieceCount(TeamColor.WHITE, PieceType.PAWN));
+    }
+
+    @Test
+    @DisplayName("Shared Piece And Position Instances")
+    public void sharedInstances() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        assertSame(ChessPiece.of(TeamColor.WHITE, PieceType.ROOK), board.getPiece(ChessPosition.of(1, 1)));
+        assertSame(board.getPiece(ChessPosition.of(7, 3)), board.getPiece(ChessPosition.of(7, 6)));
+        assertSame(ChessPosition.of(4, 5), ChessPosition.ofSquare(ChessBoard.squareIndex(4, 5)));
+        assertEquals(new ChessPosition(4, 5), ChessPosition.of(4, 5));
+        assertEquals(new ChessPosition(0, 9), ChessPosition.of(0, 9));
+
+        ChessMove move = EncodedMove.toChessMove(EncodedMove.encode(ChessBoard.squareIndex(2, 5),
+                ChessBoard.squareIndex(4, 5), 0));
+        assertSame(ChessPosition.of(2, 5), move.getStartPosition());
+    }
+
+    @Test
+    @DisplayName("Incremental Scores Match A Fresh Board")
+    public void incrementalScores() {
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+        assertEquals(0, start.getMidgameScore());
+        assertEquals(0, start.getEndgameScore());
+        assertEquals(PieceSquareTables.MAX_PHASE, start.getPhase());
+
+        // Castling, en passant and promotions, made and taken back
+        String[] positions = { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", };
+        for (String fen : positions) {
+            ChessGame game = ChessGame.fromFen(fen);
+            checkScores(game, 3);
+            assertEquals(fen, game.toFen());
+        }
+    }
+
+    private static void checkScores(ChessGame game, int depth) {
+        ChessBoard board = game.getBoard();
+        ChessBoard fresh = Fen.parseBoard(Fen.formatBoard(board));
+        assertEquals(fresh.getMidgameScore(), board.getMidgameScore());
+        assertEquals(fresh.getEndgameScore(), board.getEndgameScore());
+        assertEquals(fresh.getPhase(), board.getPhase());
+        assertEquals(fresh.getPawnKey(), board.getPawnKey());
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            checkScores(game, depth - 1);
+            game.undoMove();
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects Squares Off The Board")
+    public void offBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessPiece queen = ChessPiece.of(TeamColor.WHITE, PieceType.QUEEN);
+        // These would otherwise wrap onto a1, a8 and a2
+        assertThrows(IllegalArgumentException.class, () -> board.getPiece(new ChessPosition(9, 1)));
+        assertThrows(IllegalArgumentException.class, () -> board.getPiece(new ChessPosition(0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> board.getPiece(new ChessPosition(1, 9)));
+        assertThrows(IllegalArgumentException.class, () -> board.getPiece(64));
+        assertThrows(IllegalArgumentException.class, () -> board.addPiece(-8, queen));
+        assertThrows(IllegalArgumentException.class, () -> board.addPiece(new ChessPosition(9, 1), queen));
+        assertThrows(IllegalArgumentException.class, () -> new ChessGame().validMoves(new ChessPosition(9, 1)));
+        assertEquals(board, new ChessBoard(board));
+
+        // A pawn set up on its last row has nowhere to go
+        ChessBoard lastRow = new ChessBoard();
+        lastRow.addPiece(new ChessPosition(8, 1), ChessPiece.of(TeamColor.WHITE, PieceType.PAWN));
+        lastRow.addPiece(new ChessPosition(1, 8), ChessPiece.of(TeamColor.BLACK, PieceType.PAWN));
+        assertTrue(lastRow.getPiece(new ChessPosition(8, 1)).pieceMoves(lastRow, new ChessPosition(8, 1)).isEmpty());
+        assertTrue(lastRow.getPiece(new ChessPosition(1, 8)).pieceMoves(lastRow, new ChessPosition(1, 8)).isEmpty());
+    }
+}
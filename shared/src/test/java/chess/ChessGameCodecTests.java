@@ -0,0 +1,68 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessGameCodecTests {
+
+    @Test
+    @DisplayName("Round Trip")
+    public void roundTrip() throws InvalidMoveException {
+        String[] positions = { ChessGame.START_POSITION,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 57 120", "8/8/8/8/8/8/8/8 w - - 0 1", };
+        for (String fen : positions) {
+            ChessGame game = ChessGame.fromFen(fen);
+            byte[] bytes = ChessGameCodec.toBytes(game);
+            assertTrue(bytes.length <= ChessGameCodec.MAX_ENCODED_SIZE);
+            ChessGame decoded = ChessGameCodec.fromBytes(bytes);
+            assertEquals(fen, decoded.toFen());
+            assertEquals(game.positionKey(), decoded.positionKey());
+        }
+
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        game.setGameOver(true);
+        ChessGame decoded = ChessGameCodec.fromBytes(ChessGameCodec.toBytes(game));
+        assertTrue(decoded.getGameOver());
+        assertEquals(game.toFen(), decoded.toFen());
+        assertEquals(ChessGameCodec.MAX_ENCODED_SIZE, ChessGameCodec.toBytes(ChessGame.fromFen(game.toFen())).length);
+    }
+
+    @Test
+    @DisplayName("Several Games In One Buffer")
+    public void sharedBuffer() {
+        ChessGame first = new ChessGame();
+        ChessGame second = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 b - - 0 1");
+        ByteBuffer buffer = ByteBuffer.allocate(2 * ChessGameCodec.MAX_ENCODED_SIZE);
+        ChessGameCodec.encode(first, buffer);
+        ChessGameCodec.encode(second, buffer);
+        assertEquals(ChessGameCodec.encodedSize(first) + ChessGameCodec.encodedSize(second), buffer.position());
+
+        buffer.flip();
+        assertEquals(first.toFen(), ChessGameCodec.decode(buffer).toFen());
+        assertEquals(second.toFen(), ChessGameCodec.decode(buffer).toFen());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Data")
+    public void rejectsBadData() {
+        byte[] bytes = ChessGameCodec.toBytes(new ChessGame());
+        assertThrows(IllegalArgumentException.class,
+                () -> ChessGameCodec.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.fromBytes(wrongVersion));
+    }
+}
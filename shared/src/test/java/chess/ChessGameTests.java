@@ -0,0 +1,180 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import chess.ChessGame.GameStatus;
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+import passoff.chess.TestUtilities;
+
+public class ChessGameTests {
+
+    @Test
+    @DisplayName("Square Attacked by Each Piece Type")
+    public void squareAttacked() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | |N| | | | | | |
+                | | | | | | | | |
+                | | | | | | | |B|
+                |R| | | |K| | | |
+                """));
+
+        // Pawn d5 attacks c4 and e4
+        assertTrue(game.isSquareAttacked(new ChessPosition(4, 5), TeamColor.BLACK));
+        assertFalse(game.isSquareAttacked(new ChessPosition(4, 4), TeamColor.BLACK));
+        // Knight b4 attacks d5
+        assertTrue(game.isSquareAttacked(new ChessPosition(5, 4), TeamColor.WHITE));
+        // Rook a1 reaches d1 but stops at the king on e1
+        assertTrue(game.isSquareAttacked(new ChessPosition(1, 4), TeamColor.WHITE));
+        assertFalse(game.isSquareAttacked(new ChessPosition(1, 8), TeamColor.WHITE));
+        // Bishop h2 reaches the black king's diagonal up to d6
+        assertTrue(game.isSquareAttacked(new ChessPosition(6, 4), TeamColor.WHITE));
+        assertFalse(game.isInCheck(TeamColor.BLACK));
+        // Kings attack their neighbours
+        assertTrue(game.isSquareAttacked(new ChessPosition(7, 4), TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Encoded Legal Moves Match validMoves")
+    public void encodedLegalMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        assertEquals(20, moves.size());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4)));
+        game.generateLegalMoves(moves);
+
+        int captures = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (EncodedMove.hasFlag(move, EncodedMove.CAPTURE)) {
+                captures++;
+                assertEquals(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4)),
+                        EncodedMove.toChessMove(move));
+            }
+        }
+        assertEquals(1, captures);
+        assertEquals(2, game.validMoves(new ChessPosition(4, 5)).size());
+    }
+
+    @Test
+    @DisplayName("makeMove Returns Game Status")
+    public void makeMoveStatus() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        assertEquals(GameStatus.NORMAL, game.getStatus());
+        assertEquals(GameStatus.NORMAL, game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6))));
+        assertEquals(GameStatus.NORMAL, game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5))));
+        assertEquals(GameStatus.NORMAL, game.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7))));
+        assertFalse(game.getGameOver());
+
+        // Fool's mate
+        GameStatus status = game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8)));
+        assertEquals(GameStatus.CHECKMATE, status);
+        assertTrue(status.isGameOver());
+        assertFalse(status.isDraw());
+        assertTrue(game.getGameOver());
+        assertTrue(game.isInCheckmate(TeamColor.WHITE));
+        assertFalse(game.isInStalemate(TeamColor.WHITE));
+
+        // The cached status follows the position when a move is taken back
+        game.undoMove();
+        assertEquals(GameStatus.NORMAL, game.getStatus());
+        game.getBoard().addPiece(new ChessPosition(6, 4), new ChessPiece(TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        assertEquals(GameStatus.CHECK, game.getStatus());
+    }
+
+    @Test
+    @DisplayName("isLegal Agrees With Move Generation")
+    public void isLegalMatchesGeneration() {
+        String[] positions = { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", };
+        PieceType[] promotions = { null, PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT,
+                PieceType.KING };
+        MoveList moves = new MoveList();
+        MoveList replies = new MoveList();
+        for (String fen : positions) {
+            ChessGame game = ChessGame.fromFen(fen);
+            game.generateLegalMoves(moves);
+            // Check the position itself and every position one move later
+            for (int i = -1; i < moves.size(); i++) {
+                if (i >= 0) {
+                    game.doMove(moves.get(i));
+                }
+                game.generateLegalMoves(replies);
+                Set<ChessMove> legal = new HashSet<>();
+                for (int j = 0; j < replies.size(); j++) {
+                    legal.add(EncodedMove.toChessMove(replies.get(j)));
+                }
+                for (int from = 0; from < 64; from++) {
+                    for (int to = 0; to < 64; to++) {
+                        for (PieceType promotion : promotions) {
+                            ChessMove move = new ChessMove(ChessPosition.ofSquare(from), ChessPosition.ofSquare(to),
+                                    promotion);
+                            String name = EncodedMove.toString(EncodedMove.encode(move));
+                            assertEquals(legal.contains(move), game.isLegal(move), name);
+                        }
+                    }
+                }
+                if (i >= 0) {
+                    game.undoMove();
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Automatic Draws")
+    public void automaticDraws() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        String[] shuffle = { "g1f3", "g8f6", "f3g1", "f6g8" };
+        for (int i = 0; i < 7; i++) {
+            assertEquals(GameStatus.NORMAL, game.makeMove(move(shuffle[i % 4])));
+        }
+        // The repetition history survives storage
+        game = ChessGameCodec.fromBytes(ChessGameCodec.toBytes(game));
+        assertEquals(GameStatus.DRAW_REPETITION, game.makeMove(move("f6g8")));
+        assertTrue(game.getGameOver());
+        game.undoMove();
+        assertEquals(GameStatus.NORMAL, game.getStatus());
+
+        game = ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertEquals(GameStatus.DRAW_FIFTY_MOVES, game.makeMove(move("a1a2")));
+        game = ChessGame.fromFen("k7/8/1K6/8/8/8/8/7R w - - 99 80");
+        assertEquals(GameStatus.CHECKMATE, game.makeMove(move("h1h8")));
+
+        game = ChessGame.fromFen("4k3/8/8/8/8/8/3r4/4K3 w - - 0 1");
+        assertEquals(GameStatus.DRAW_INSUFFICIENT_MATERIAL, game.makeMove(move("e1d2")));
+
+        String[] insufficient = { "4k3/8/8/8/8/8/8/4K3 w - - 0 1", "4k3/8/8/8/8/8/8/2B1K3 w - - 0 1",
+                "4kn2/8/8/8/8/8/8/4K3 w - - 0 1", "1b2k3/8/8/8/8/8/8/2B1K3 w - - 0 1", };
+        String[] sufficient = { "4k3/8/8/8/8/8/4P3/4K3 w - - 0 1", "2b1k3/8/8/8/8/8/8/2B1K3 w - - 0 1",
+                "4k3/8/8/8/8/8/8/1NN1K3 w - - 0 1", "4kb2/8/8/8/8/8/8/1N2K3 w - - 0 1", };
+        for (String fen : insufficient) {
+            assertTrue(ChessGame.fromFen(fen).hasInsufficientMaterial(), fen);
+        }
+        for (String fen : sufficient) {
+            assertFalse(ChessGame.fromFen(fen).hasInsufficientMaterial(), fen);
+        }
+    }
+
+    private static ChessMove move(String move) {
+        return new ChessMove(ChessPosition.of(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                ChessPosition.of(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), null);
+    }
+}
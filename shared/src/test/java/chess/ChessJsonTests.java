@@ -0,0 +1,121 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+import websocket.messages.LoadGame;
+
+public class ChessJsonTests {
+    private final Gson gson = ChessJson.gson();
+
+    @Test
+    @DisplayName("Game Round Trip")
+    public void gameRoundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        game.setGameOver(true);
+
+        String json = gson.toJson(game);
+        assertEquals("{\"version\":2,\"fen\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1\","
+                + "\"gameOver\":true}", json);
+        ChessGame read = gson.fromJson(json, ChessGame.class);
+        assertEquals(game.toFen(), read.toFen());
+        assertTrue(read.getGameOver());
+        assertTrue(read.getMoveHistory().isEmpty());
+
+        json = ChessJson.gsonWithHistory().toJson(game);
+        assertEquals("{\"version\":2,\"fen\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1\","
+                + "\"gameOver\":true,\"startFen\":\"" + ChessGame.START_POSITION
+                + "\",\"moves\":[1804],\"san\":[\"e4\"]}", json);
+        read = gson.fromJson(json, ChessGame.class);
+        assertEquals(game.toFen(), read.toFen());
+        assertEquals("e4", read.getMoveHistory().getSan(0));
+        assertNull(gson.fromJson("null", ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Nested In Messages")
+    public void nestedInMessages() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        LoadGame message = new LoadGame(game.snapshot());
+        String json = gson.toJson(message);
+        // The snapshot carries no move history, so the message stays the same size as the game goes on
+        assertEquals("{\"game\":{\"version\":2,\"fen\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1\","
+                + "\"gameOver\":false},\"serverMessageType\":\"LOAD_GAME\"}", json);
+
+        LoadGame read = gson.fromJson(json, LoadGame.class);
+        assertEquals(game.snapshot(), read.getSnapshot());
+        assertEquals(game.toFen(), read.getGame().toFen());
+    }
+
+    @Test
+    @DisplayName("Reads Version 1 Games")
+    public void readsVersionOne() {
+        // The original reflective layout: a ChessPiece[8][8] board indexed [row - 1][col - 1]
+        StringBuilder json = new StringBuilder("{\"board\":{\"board\":[");
+        for (int row = 1; row <= 8; row++) {
+            json.append(row > 1 ? ",[" : "[");
+            for (int col = 1; col <= 8; col++) {
+                json.append(col > 1 ? "," : "");
+                if (row == 1 && col == 5) {
+                    json.append("{\"pieceType\":\"KING\",\"teamColor\":\"WHITE\"}");
+                }
+                else if (row == 4 && col == 5) {
+                    json.append("{\"pieceType\":\"PAWN\",\"teamColor\":\"WHITE\"}");
+                }
+                else if (row == 8 && col == 5) {
+                    json.append("{\"pieceType\":\"KING\",\"teamColor\":\"BLACK\"}");
+                }
+                else if (row == 8 && col == 8) {
+                    json.append("{\"pieceType\":\"ROOK\",\"teamColor\":\"BLACK\"}");
+                }
+                else {
+                    json.append("null");
+                }
+            }
+            json.append("]");
+        }
+        json.append("]},\"teamTurn\":\"BLACK\",\"canBlackKingsideCastle\":true,\"canWhiteKingsideCastle\":false,"
+                + "\"canBlackQueensideCastle\":false,\"canWhiteQueensideCastle\":false,"
+                + "\"enPassantLocation\":{\"row\":3,\"col\":5},\"gameOver\":false}");
+
+        ChessGame game = gson.fromJson(json.toString(), ChessGame.class);
+        assertEquals("4k2r/8/8/8/4P3/8/8/4K3 b k e3 0 1", game.toFen());
+        assertEquals(TeamColor.BLACK, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Board And Piece")
+    public void boardAndPiece() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        String json = gson.toJson(board);
+        assertEquals("\"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR\"", json);
+        assertEquals(board, gson.fromJson(json, ChessBoard.class));
+
+        ChessPiece knight = ChessPiece.of(TeamColor.BLACK, PieceType.KNIGHT);
+        assertEquals("\"n\"", gson.toJson(knight));
+        assertEquals(knight, gson.fromJson("\"n\"", ChessPiece.class));
+        assertEquals(knight, gson.fromJson("{\"pieceType\":\"KNIGHT\",\"teamColor\":\"BLACK\"}", ChessPiece.class));
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Data")
+    public void rejectsBadData() {
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"version\":3,\"fen\":\"8/8/8/8/8/8/8/8 w - - 0 1\"}", ChessGame.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"version\":2,\"fen\":\"bad\"}", ChessGame.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("\"x\"", ChessPiece.class));
+    }
+}
@@ -0,0 +1,70 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import chess.ChessGame.TeamColor;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        ChessGame game = new ChessGame();
+        assertEquals(ChessGame.START_POSITION, game.toFen());
+        assertEquals(game, ChessGame.fromFen(ChessGame.START_POSITION));
+        assertEquals(game.positionKey(), ChessGame.fromFen(ChessGame.START_POSITION).positionKey());
+    }
+
+    @Test
+    @DisplayName("Round Trip")
+    public void roundTrip() {
+        String[] positions = { "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+                "4k3/8/8/8/8/8/8/4K3 b - - 57 120", };
+        for (String fen : positions) {
+            assertEquals(fen, ChessGame.fromFen(fen).toFen());
+        }
+        assertEquals("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 0 1",
+                ChessGame.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - -").toFen());
+    }
+
+    @Test
+    @DisplayName("Move Counters")
+    public void moveCounters() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6)));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6)));
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2", game.toFen());
+        assertEquals(TeamColor.BLACK, game.getTeamTurn());
+
+        game.undoMove();
+        game.undoMove();
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(1, game.getFullmoveNumber());
+    }
+
+    @Test
+    @DisplayName("Invalid FEN")
+    public void invalidFen() {
+        String[] invalid = { "", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNRR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - zero 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0", };
+        for (String fen : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
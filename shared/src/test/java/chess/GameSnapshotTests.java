@@ -0,0 +1,99 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+import websocket.messages.LoadGame;
+
+public class GameSnapshotTests {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Copies The Position")
+    public void copiesPosition() {
+        ChessGame game = ChessGame.fromFen(KIWIPETE);
+        GameSnapshot snapshot = game.snapshot();
+        assertEquals(KIWIPETE, snapshot.toFen());
+        assertEquals(game.positionKey(), snapshot.positionKey());
+        assertEquals(TeamColor.WHITE, snapshot.getTeamTurn());
+        assertEquals(game.getCastlingRights(), snapshot.getCastlingRights());
+        for (int square = 0; square < 64; square++) {
+            assertEquals(game.getBoard().getPiece(square), snapshot.getPiece(square));
+        }
+        assertEquals(ChessPiece.of(TeamColor.BLACK, PieceType.QUEEN), snapshot.getPiece(new ChessPosition(7, 5)));
+        assertNull(snapshot.getPiece(new ChessPosition(4, 1)));
+    }
+
+    @Test
+    @DisplayName("Unchanged By Later Moves")
+    public void unchangedByMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameSnapshot start = game.snapshot();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        GameSnapshot afterE4 = game.snapshot();
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4)));
+        game.setGameOver(true);
+
+        assertEquals(ChessGame.START_POSITION, start.toFen());
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", afterE4.toFen());
+        assertEquals(start, new ChessGame().snapshot());
+        assertEquals(start.hashCode(), new ChessGame().snapshot().hashCode());
+        assertNotEquals(start, afterE4);
+        assertNotEquals(game.snapshot(), ChessGame.fromFen(game.toFen()).snapshot());
+    }
+
+    @Test
+    @DisplayName("Back To A Game")
+    public void toGame() {
+        GameSnapshot snapshot = ChessGame.fromFen("8/8/8/3pP3/8/8/8/K6k w - d6 12 40").snapshot();
+        ChessGame game = snapshot.toGame();
+        assertEquals("8/8/8/3pP3/8/8/8/K6k w - d6 12 40", game.toFen());
+        assertEquals(snapshot.positionKey(), game.positionKey());
+        assertTrue(game.getMoveHistory().isEmpty());
+        assertTrue(game.isLegal(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4))));
+    }
+
+    @Test
+    @DisplayName("Json")
+    public void json() throws InvalidMoveException {
+        Gson gson = ChessJson.gson();
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5)));
+        GameSnapshot snapshot = game.snapshot();
+
+        String json = gson.toJson(snapshot);
+        assertEquals("{\"version\":2,\"fen\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1\","
+                + "\"gameOver\":false}", json);
+        assertEquals(snapshot, gson.fromJson(json, GameSnapshot.class));
+        assertEquals(game.toFen(), gson.fromJson(json, ChessGame.class).toFen());
+    }
+
+    @Test
+    @DisplayName("Keeps A Resignation")
+    public void resignation() {
+        ChessGame game = new ChessGame();
+        GameSnapshot playing = game.snapshot();
+        game.resign(TeamColor.BLACK);
+        GameSnapshot resigned = game.snapshot();
+        assertEquals(TeamColor.BLACK, resigned.getResigned());
+        assertNotEquals(playing, resigned);
+        assertEquals(TeamColor.BLACK, resigned.toGame().getResigned());
+
+        // What every client gets in LOAD_GAME once a player resigns
+        Gson gson = ChessJson.gson();
+        LoadGame read = gson.fromJson(gson.toJson(new LoadGame(resigned)), LoadGame.class);
+        assertEquals(resigned, read.getSnapshot());
+        assertEquals(TeamColor.BLACK, read.getGame().getResigned());
+        assertTrue(read.getGame().getGameOver());
+        assertNull(playing.getResigned());
+    }
+}
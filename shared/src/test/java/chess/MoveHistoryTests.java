@@ -0,0 +1,175 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import chess.ChessGame.GameStatus;
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+
+public class MoveHistoryTests {
+
+    @Test
+    @DisplayName("Standard Algebraic Notation")
+    public void standardAlgebraicNotation() throws InvalidMoveException {
+        assertEquals("Nbd2", san("4k3/8/8/8/8/5N2/8/1N2K3 w - - 0 1", "b1d2", null));
+        assertEquals("Rad1", san("4k3/8/8/8/8/8/8/R4RK1 w - - 0 1", "a1d1", null));
+        assertEquals("R1a3", san("4k3/8/8/R7/8/8/8/R3K3 w - - 0 1", "a1a3", null));
+        assertEquals("Qa1b2", san("4k3/8/8/8/8/Q7/8/Q1Q1K3 w - - 0 1", "a1b2", null));
+        // The knight on e2 is pinned, so it cannot also go to c3
+        assertEquals("Nc3", san("4r1k1/8/8/8/8/8/4N3/1N2K3 w - - 0 1", "b1c3", null));
+        assertEquals("exd6", san("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2", "e5d6", null));
+        assertEquals("a8=Q+", san("8/P7/8/8/8/8/8/k6K w - - 0 1", "a7a8", PieceType.QUEEN));
+        assertEquals("O-O", san("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1g1", null));
+        assertEquals("O-O-O", san("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", "e8c8", null));
+        assertEquals("Kd2", san("4k3/8/8/8/8/8/8/4K3 w - - 0 1", "e1d2", null));
+    }
+
+    @Test
+    @DisplayName("History Follows Undo")
+    public void followsUndo() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "e7e5");
+        MoveHistory history = game.getMoveHistory();
+        assertEquals(2, history.size());
+        assertEquals(ChessGame.START_POSITION, history.getStartFen());
+        assertEquals("e2e4", EncodedMove.toString(history.getMove(0)));
+
+        game.undoMove();
+        assertEquals(1, history.size());
+        game.undoMove();
+        assertTrue(history.isEmpty());
+
+        // Moves played without makeMove are not recorded, and undoing them leaves the history alone
+        play(game, "d2d4");
+        game.doMove(EncodedMove.encode(ChessBoard.squareIndex(7, 4), ChessBoard.squareIndex(5, 4), 0));
+        game.undoMove();
+        assertEquals(1, history.size());
+        assertEquals("d4", history.getSan(0));
+    }
+
+    @Test
+    @DisplayName("PGN")
+    public void pgn() throws InvalidMoveException, IOException {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "e7e5", "f1c4", "b8c6", "d1h5", "g8f6", "h5f7");
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("White", "Alice");
+        tags.put("Black", "Bob \"the Rook\"");
+        tags.put("Annotator", "Test");
+        StringBuilder pgn = new StringBuilder();
+        new PgnWriter(pgn).write(game, tags);
+
+        assertEquals("""
+                [Event "?"]
+                [Site "?"]
+                [Date "????.??.??"]
+                [Round "?"]
+                [White "Alice"]
+                [Black "Bob \\"the Rook\\""]
+                [Result "1-0"]
+                [Annotator "Test"]
+
+                1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+
+                """, pgn.toString());
+    }
+
+    @Test
+    @DisplayName("PGN From A Set Up Position")
+    public void pgnSetUp() throws InvalidMoveException, IOException {
+        String fen = "4k3/8/8/8/8/8/8/R3K3 b Q - 0 30";
+        ChessGame game = ChessGame.fromFen(fen);
+        for (int i = 0; i < 20; i++) {
+            play(game, "e8d7", "a1a2", "d7e8", "a2a1");
+        }
+        StringBuilder pgn = new StringBuilder();
+        new PgnWriter(pgn).write(game, Map.of());
+
+        String text = pgn.toString();
+        assertTrue(text.contains("[SetUp \"1\"]\n[FEN \"" + fen + "\"]\n"));
+        assertTrue(text.contains("\n30... Kd7 31. Ra2 Ke8 32. Ra1 Kd7"));
+        // The shuffling is a draw by repetition
+        assertTrue(text.contains("[Result \"1/2-1/2\"]\n"));
+        assertTrue(text.endsWith(" 1/2-1/2\n\n"));
+        for (String line : text.split("\n")) {
+            assertTrue(line.length() <= 80, line);
+        }
+    }
+
+    @Test
+    @DisplayName("History Is Stored")
+    public void stored() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        play(game, "e1g1", "a8b8", "f1f8");
+
+        for (ChessGame copy : new ChessGame[] { ChessGameCodec.fromBytes(ChessGameCodec.toBytes(game)),
+                ChessJson.gson().fromJson(ChessJson.gsonWithHistory().toJson(game), ChessGame.class) }) {
+            MoveHistory history = copy.getMoveHistory();
+            assertEquals(3, history.size());
+            assertEquals("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", history.getStartFen());
+            assertEquals("O-O", history.getSan(0));
+            assertEquals("Rf8+", history.getSan(2));
+            assertEquals(game.getMoveHistory().getMove(0), history.getMove(0));
+        }
+        assertEquals(ChessGameCodec.encodedSize(game), ChessGameCodec.toBytes(game).length);
+    }
+
+    @Test
+    @DisplayName("Check That Completes A Repetition")
+    public void checkDrawnByRepetition() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        play(game, "a1a8", "e8e7", "a8a1", "e7e8", "a1a8", "e8e7", "a8a1", "e7e8");
+        GameStatus status = game.makeMove(new ChessMove(position("a1"), position("a8"), null));
+
+        assertEquals(GameStatus.DRAW_REPETITION, status);
+        MoveHistory history = game.getMoveHistory();
+        assertEquals("Ra8+", history.getSan(0));
+        assertEquals("Ra8+", history.getSan(history.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Resignation Is Recorded")
+    public void resignation() throws InvalidMoveException, IOException {
+        ChessGame game = new ChessGame();
+        play(game, "e2e4", "e7e5");
+        game.resign(TeamColor.WHITE);
+        assertTrue(game.getGameOver());
+
+        for (ChessGame copy : new ChessGame[] { game, ChessGameCodec.fromBytes(ChessGameCodec.toBytes(game)),
+                ChessJson.gson().fromJson(ChessJson.gsonWithHistory().toJson(game), ChessGame.class),
+                ChessJson.gson().fromJson(ChessJson.gson().toJson(game), ChessGame.class) }) {
+            assertEquals(TeamColor.WHITE, copy.getResigned());
+            StringBuilder pgn = new StringBuilder();
+            new PgnWriter(pgn).write(copy, Map.of());
+            assertTrue(pgn.toString().contains("[Result \"0-1\"]\n"));
+        }
+        game.resign(TeamColor.BLACK);
+        assertEquals("1-0", PgnWriter.result(game));
+        assertNull(new ChessGame().getResigned());
+    }
+
+    private static String san(String fen, String move, PieceType promotion) throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(fen);
+        game.makeMove(new ChessMove(position(move.substring(0, 2)), position(move.substring(2, 4)), promotion));
+        return game.getMoveHistory().getSan(0);
+    }
+
+    private static void play(ChessGame game, String... moves) throws InvalidMoveException {
+        for (String move : moves) {
+            game.makeMove(new ChessMove(position(move.substring(0, 2)), position(move.substring(2, 4)), null));
+        }
+    }
+
+    private static ChessPosition position(String square) {
+        return ChessPosition.of(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+}
@@ -0,0 +1,64 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PerftTests {
+    // Deeper counts in the file are left for the command line tool
+    private static final long MAX_NODES = 1_000_000;
+
+    @Test
+    @DisplayName("Reference Positions")
+    public void referencePositions() throws IOException {
+        InputStream input = PerftTests.class.getResourceAsStream("perft.epd");
+        assertNotNull(input, "Missing perft.epd test resource");
+        int checked = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] parts = line.split(";");
+                String fen = parts[0].trim();
+                Perft perft = new Perft(ChessGame.fromFen(fen));
+                for (int i = 1; i < parts.length; i++) {
+                    String[] entry = parts[i].trim().split("\\s+");
+                    int depth = Integer.parseInt(entry[0].substring(1));
+                    long expected = Long.parseLong(entry[1]);
+                    if (expected > MAX_NODES) {
+                        continue;
+                    }
+                    assertEquals(expected, perft.perft(depth), String.format("Depth %d of %s", depth, fen));
+                    checked++;
+                }
+            }
+        }
+        assertTrue(checked > 0, "No perft counts were checked");
+    }
+
+    @Test
+    @DisplayName("Divide Adds Up")
+    public void divideAddsUp() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long before = game.positionKey();
+        Map<String, Long> counts = new Perft(game).divide(2);
+
+        assertEquals(48, counts.size());
+        assertEquals(2039L, counts.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(counts.containsKey("e1g1"));
+        assertTrue(counts.containsKey("e1c1"));
+        assertEquals(before, game.positionKey(), "Perft should leave the game as it found it");
+    }
+}
@@ -0,0 +1,94 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+import passoff.chess.TestUtilities;
+
+public class UndoMoveTests {
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol));
+    }
+
+    @Test
+    @DisplayName("Undo Restores Special Moves")
+    public void undoSpecialMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                |r| | | |k| | |r|
+                | | | | | | |P| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | | | | | | |
+                | | | |P| | | | |
+                |R| | | |K| | |R|
+                """));
+        long startKey = game.positionKey();
+        ChessBoard startBoard = copy(game.getBoard());
+
+        // Double push allowing en passant, en passant capture, castling, promotion capture
+        game.makeMove(move(2, 4, 4, 4));
+        game.makeMove(move(4, 3, 3, 4));
+        game.makeMove(move(1, 5, 1, 7));
+        game.makeMove(move(8, 5, 8, 3));
+        game.makeMove(new ChessMove(new ChessPosition(7, 7), new ChessPosition(8, 8), PieceType.QUEEN));
+
+        assertEquals(new ChessPiece(TeamColor.WHITE, PieceType.QUEEN),
+                game.getBoard().getPiece(new ChessPosition(8, 8)));
+        assertEquals(new ChessPiece(TeamColor.BLACK, PieceType.ROOK),
+                game.getBoard().getPiece(new ChessPosition(8, 4)));
+        assertEquals(0, game.getCastlingRights());
+
+        for (int i = 0; i < 5; i++) {
+            game.undoMove();
+        }
+
+        assertEquals(startBoard, game.getBoard());
+        assertEquals(startKey, game.positionKey());
+        assertEquals(TeamColor.WHITE, game.getTeamTurn());
+        assertEquals(Zobrist.WHITE_KINGSIDE | Zobrist.WHITE_QUEENSIDE | Zobrist.BLACK_KINGSIDE
+                | Zobrist.BLACK_QUEENSIDE, game.getCastlingRights());
+    }
+
+    @Test
+    @DisplayName("Undo En Passant Capture")
+    public void undoEnPassant() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 1, 6, 1));
+        game.makeMove(move(4, 5, 5, 5));
+        game.makeMove(move(7, 4, 5, 4));
+        long key = game.positionKey();
+
+        game.makeMove(move(5, 5, 6, 4));
+        assertNull(game.getBoard().getPiece(new ChessPosition(5, 4)));
+
+        game.undoMove();
+        assertEquals(new ChessPiece(TeamColor.BLACK, PieceType.PAWN),
+                game.getBoard().getPiece(new ChessPosition(5, 4)));
+        assertEquals(key, game.positionKey());
+    }
+
+    @Test
+    @DisplayName("Undo With Nothing to Undo")
+    public void undoEmpty() {
+        ChessGame game = new ChessGame();
+        assertThrows(IllegalStateException.class, game::undoMove);
+    }
+
+    private static ChessBoard copy(ChessBoard board) {
+        ChessBoard copy = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            copy.addPiece(square, board.getPiece(square));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    private static void move(ChessGame game, int startRow, int startCol, int endRow, int endCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol)));
+    }
+
+    @Test
+    @DisplayName("Repeated Position Has Same Key")
+    public void repeatedPositionSameKey() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long startKey = game.positionKey();
+
+        move(game, 1, 7, 3, 6);
+        assertNotEquals(startKey, game.positionKey());
+        move(game, 8, 7, 6, 6);
+        move(game, 3, 6, 1, 7);
+        move(game, 6, 6, 8, 7);
+
+        assertEquals(startKey, game.positionKey());
+    }
+
+    @Test
+    @DisplayName("Transposition Has Same Key")
+    public void transpositionSameKey() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        move(first, 2, 5, 3, 5);
+        move(first, 7, 5, 6, 5);
+        move(first, 2, 4, 3, 4);
+
+        ChessGame second = new ChessGame();
+        move(second, 2, 4, 3, 4);
+        move(second, 7, 5, 6, 5);
+        move(second, 2, 5, 3, 5);
+
+        assertEquals(first.positionKey(), second.positionKey());
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    @DisplayName("Lost Castling Rights Change Key")
+    public void castlingRightsChangeKey() throws InvalidMoveException {
+        // Same pieces and side to move, but the white king has moved and come back
+        ChessGame moved = new ChessGame();
+        move(moved, 2, 5, 4, 5);
+        move(moved, 7, 5, 5, 5);
+        move(moved, 1, 5, 2, 5);
+        move(moved, 8, 7, 6, 6);
+        move(moved, 2, 5, 1, 5);
+        move(moved, 6, 6, 8, 7);
+
+        ChessGame unmoved = new ChessGame();
+        move(unmoved, 2, 5, 4, 5);
+        move(unmoved, 7, 5, 5, 5);
+
+        assertEquals(unmoved.getBoard().getZobristKey(), moved.getBoard().getZobristKey());
+        assertNotEquals(unmoved.positionKey(), moved.positionKey());
+    }
+}
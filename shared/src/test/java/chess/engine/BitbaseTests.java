@@ -0,0 +1,107 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chess.AttackTables;
+import chess.ChessGame;
+import chess.ChessPiece.PieceType;
+import chess.engine.Bitbase.Outcome;
+
+public class BitbaseTests {
+    private static Bitbase queens;
+    private static Bitbase rooks;
+    private static Bitbase pawns;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    public static void generate() {
+        queens = BitbaseGenerator.generate(PieceType.QUEEN);
+        rooks = BitbaseGenerator.generate(PieceType.ROOK);
+        pawns = BitbaseGenerator.generate(PieceType.PAWN);
+    }
+
+    @Test
+    @DisplayName("Queen And Rook Always Win With The Move")
+    public void queenAndRookWin() {
+        for (Bitbase bitbase : new Bitbase[] { queens, rooks }) {
+            int legal = 0;
+            for (int strongKing = 0; strongKing < 64; strongKing++) {
+                for (int weakKing = 0; weakKing < 64; weakKing++) {
+                    for (int piece = 0; piece < 64; piece++) {
+                        long occupied = (1L << strongKing) | (1L << weakKing) | (1L << piece);
+                        long attacks = (bitbase == queens) ? AttackTables.queenAttacks(piece, occupied)
+                                : AttackTables.rookAttacks(piece, occupied);
+                        long kingMoves = AttackTables.kingAttacks(strongKing);
+                        if (Long.bitCount(occupied) < 3 || ((kingMoves | attacks) & (1L << weakKing)) != 0) {
+                            continue;
+                        }
+                        legal++;
+                        assertTrue(bitbase.isWin(Bitbase.index(true, strongKing, weakKing, piece)));
+                    }
+                }
+            }
+            assertTrue(legal > 100000, legal + " positions");
+        }
+    }
+
+    @Test
+    @DisplayName("Known Positions")
+    public void knownPositions() {
+        assertEquals(Outcome.WIN, queens.probe(ChessGame.fromFen("7k/8/8/8/8/8/8/KQ6 w - - 0 1")));
+        assertEquals(Outcome.LOSS, queens.probe(ChessGame.fromFen("7k/8/8/8/8/8/8/KQ6 b - - 0 1")));
+        // Stalemate
+        assertEquals(Outcome.DRAW, queens.probe(ChessGame.fromFen("k7/8/1Q6/8/8/8/8/K7 b - - 0 1")));
+        // The black king takes the undefended rook
+        assertEquals(Outcome.DRAW, rooks.probe(ChessGame.fromFen("8/8/8/8/8/8/6Rk/K7 b - - 0 1")));
+        assertEquals(Outcome.LOSS, rooks.probe(ChessGame.fromFen("7K/8/8/8/8/8/8/kr6 w - - 0 1")));
+
+        assertEquals(Outcome.WIN, pawns.probe(ChessGame.fromFen("8/4P3/4K3/8/8/8/8/k7 w - - 0 1")));
+        assertEquals(Outcome.LOSS, pawns.probe(ChessGame.fromFen("K7/8/8/8/8/4k3/4p3/8 w - - 0 1")));
+        // The defending king in front of the pawn holds the draw with the opposition
+        assertEquals(Outcome.DRAW, pawns.probe(ChessGame.fromFen("8/4k3/8/4K3/4P3/8/8/8 w - - 0 1")));
+        assertEquals(Outcome.LOSS, pawns.probe(ChessGame.fromFen("8/4k3/8/4K3/4P3/8/8/8 b - - 0 1")));
+        // With the king on the sixth rank in front of the pawn, it wins whoever is to move
+        assertEquals(Outcome.WIN, pawns.probe(ChessGame.fromFen("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1")));
+        // A rook pawn cannot drive the king out of the corner
+        assertEquals(Outcome.DRAW, pawns.probe(ChessGame.fromFen("k7/8/1K6/P7/8/8/8/8 w - - 0 1")));
+
+        assertNull(pawns.probe(new ChessGame()));
+        assertNull(pawns.probe(ChessGame.fromFen("7k/8/8/8/8/8/8/KQ6 w - - 0 1")));
+        assertEquals(Outcome.DRAW, BitbaseGenerator.generate(PieceType.KNIGHT)
+                .probe(ChessGame.fromFen("7k/8/8/8/8/8/8/KN6 w - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("Files")
+    public void files() throws IOException {
+        Path file = directory.resolve(Bitbase.fileName(PieceType.PAWN));
+        pawns.write(file);
+        assertEquals("KPK.bin", file.getFileName().toString());
+        assertEquals(8 + 2 * 64 * 64 * 64 / 8, Files.size(file));
+
+        Bitbase mapped = Bitbase.open(file);
+        assertEquals(PieceType.PAWN, mapped.getPieceType());
+        for (int index = 0; index < Bitbase.POSITIONS; index++) {
+            assertEquals(pawns.isWin(index), mapped.isWin(index));
+        }
+
+        Path other = directory.resolve("other.bin");
+        Files.write(other, new byte[100]);
+        assertThrows(IOException.class, () -> Bitbase.open(other));
+        assertThrows(IllegalArgumentException.class, () -> BitbaseGenerator.generate(PieceType.KING));
+    }
+}
@@ -0,0 +1,156 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.EncodedMove;
+
+public class EngineTests {
+    private final Engine engine = new Engine(1);
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        ChessGame game = ChessGame.fromFen("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        SearchResult result = engine.search(game, SearchLimits.depth(4));
+        assertEquals(move("h5f7"), result.bestMove());
+        assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    public void mateInTwo() {
+        ChessGame game = ChessGame.fromFen("2r3k1/5ppp/8/8/8/8/3R1PPP/3R2K1 w - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(6));
+        assertTrue(result.isMate());
+        assertEquals(2, result.mateIn());
+        assertEquals(3, result.principalVariation().size());
+
+        // From the losing side
+        game.doMove(EncodedMove.encode(move("d2d8")));
+        result = engine.search(game, SearchLimits.depth(6));
+        assertEquals(-1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Wins Material")
+    public void winsMaterial() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+        assertEquals(move("d2d5"), result.bestMove());
+        assertEquals(3, result.depth());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    @DisplayName("Leaves The Game Unchanged")
+    public void leavesGameUnchanged() {
+        ChessGame game = new ChessGame();
+        engine.search(game, SearchLimits.depth(4));
+        assertEquals(ChessGame.START_POSITION, game.toFen());
+
+        ChessGame mated = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        assertNull(engine.search(mated, SearchLimits.depth(3)).bestMove());
+    }
+
+    @Test
+    @DisplayName("Stops On Time")
+    public void stopsOnTime() {
+        SearchResult result = engine.search(new ChessGame(), SearchLimits.time(200));
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() >= 1);
+        assertTrue(result.timeMillis() < 1000, "took " + result.timeMillis() + " ms");
+        assertThrows(IllegalArgumentException.class, () -> SearchLimits.depth(0));
+    }
+
+    @Test
+    @DisplayName("Stop Before The Search Starts")
+    public void stopBeforeSearch() {
+        engine.stop();
+        SearchResult result = engine.search(new ChessGame(), SearchLimits.depth(SearchLimits.MAX_DEPTH));
+        assertTrue(result.depth() <= 1);
+        assertTrue(result.timeMillis() < 1000, "took " + result.timeMillis() + " ms");
+
+        // The stop was used up by that search
+        assertEquals(3, engine.search(new ChessGame(), SearchLimits.depth(3)).depth());
+    }
+
+    @Test
+    @DisplayName("Parallel Search")
+    public void parallelSearch() {
+        ChessGame game = ChessGame.fromFen("2r3k1/5ppp/8/8/8/8/3R1PPP/3R2K1 w - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(6).withThreads(4));
+        assertEquals(2, result.mateIn());
+        assertTrue(Set.of(move("d1d8"), move("d2d8")).contains(result.bestMove()));
+
+        result = engine.search(new ChessGame(), SearchLimits.time(200).withThreads(3));
+        assertNotNull(result.bestMove());
+        assertTrue(result.timeMillis() < 1000, "took " + result.timeMillis() + " ms");
+        assertThrows(IllegalArgumentException.class, () -> SearchLimits.depth(4).withThreads(0));
+    }
+
+    @Test
+    @DisplayName("Evaluation")
+    public void evaluation() {
+        Evaluator evaluator = new Evaluator();
+        assertEquals(0, evaluator.evaluate(new ChessGame()));
+
+        // Mirroring the board and swapping colors gives the same score for the team to move
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        ChessGame mirrored = ChessGame.fromFen("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+        assertEquals(evaluator.evaluate(game), evaluator.evaluate(mirrored));
+        assertEquals(evaluator.evaluate(game), evaluator.evaluate(game));
+
+        // A passed pawn is worth more than a blocked one, and more still in the endgame
+        int passed = evaluator.evaluate(ChessGame.fromFen("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1"));
+        int blocked = evaluator.evaluate(ChessGame.fromFen("4k3/3p4/8/3P4/8/8/8/4K3 w - - 0 1"));
+        assertTrue(passed > blocked + PawnHashTable.endgame(PawnHashTable.pack(0, 100)));
+        int packed = Evaluator.pawnStructure(ChessGame.fromFen("4k3/8/8/8/8/3P4/3P4/4K3 w - - 0 1").getBoard());
+        assertTrue(PawnHashTable.midgame(packed) < PawnHashTable.endgame(packed));
+        assertEquals(-7, PawnHashTable.midgame(PawnHashTable.pack(-7, -300)));
+        assertEquals(-300, PawnHashTable.endgame(PawnHashTable.pack(-7, -300)));
+    }
+
+    @Test
+    @DisplayName("Transposition Table")
+    public void transpositionTable() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1 << 16, table.capacity());
+
+        long key = 0x123456789ABCDEFL;
+        table.store(key, 0x2ABCD, -31000, 12, TranspositionTable.LOWER);
+        long data = table.probe(key);
+        assertEquals(0x2ABCD, TranspositionTable.move(data));
+        assertEquals(-31000, TranspositionTable.score(data));
+        assertEquals(12, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        assertEquals(0, table.probe(key + table.capacity()));
+
+        // A shallower result for the same search keeps the deeper one
+        table.store(key, 0, 50, 3, TranspositionTable.UPPER);
+        assertEquals(12, TranspositionTable.depth(table.probe(key)));
+        table.newSearch();
+        table.store(key, 0, 50, 3, TranspositionTable.UPPER);
+        assertEquals(3, TranspositionTable.depth(table.probe(key)));
+        assertEquals(0x2ABCD, TranspositionTable.move(table.probe(key)));
+
+        table.clear();
+        assertEquals(0, table.probe(key));
+    }
+
+    private static ChessMove move(String move) {
+        return new ChessMove(ChessPosition.of(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                ChessPosition.of(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), null);
+    }
+}
@@ -0,0 +1,139 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece.PieceType;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+
+public class OpeningBookTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Looks Up Moves By Position")
+    public void lookup() throws IOException {
+        ChessGame start = new ChessGame();
+        ChessGame afterE4 = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        Path file = directory.resolve("book.bin");
+        new OpeningBook.Builder().add(start, move("d2d4"), 10).add(start, move("e2e4"), 20)
+                .add(afterE4, move("e7e5"), 5).add(afterE4, move("c7c5"), 5).add(start, move("e2e4"), 5)
+                .write(file);
+        assertEquals(64, Files.size(file));
+
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(4, book.size());
+        assertEquals(List.of(new OpeningBook.BookMove(move("e2e4"), 25), new OpeningBook.BookMove(move("d2d4"), 10)),
+                book.lookup(start));
+        assertEquals(2, book.lookup(afterE4).size());
+        assertTrue(book.lookup(ChessGame.fromFen("8/8/8/8/8/8/8/K6k w - - 0 1")).isEmpty());
+        assertNull(book.pick(ChessGame.fromFen("8/8/8/8/8/8/8/K6k w - - 0 1"), new Random(1)));
+
+        // Every move is picked, the heavier one more often
+        Random random = new Random(1);
+        int e4 = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (book.pick(start, random).equals(move("e2e4"))) {
+                e4++;
+            }
+        }
+        assertTrue(e4 > 600 && e4 < 850, "e4 picked " + e4 + " times");
+    }
+
+    @Test
+    @DisplayName("Castling And Promotion Moves")
+    public void specialMoves() throws IOException {
+        ChessGame game = ChessGame.fromFen("r3k2r/1P6/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        ChessMove promotion = new ChessMove(ChessPosition.of(7, 2), ChessPosition.of(8, 1), PieceType.KNIGHT);
+        Path file = directory.resolve("special.bin");
+        new OpeningBook.Builder().add(game, move("e1g1"), 3).add(game, move("e1c1"), 2).add(game, promotion, 1)
+                .write(file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        // Polyglot writes castling as the king moving onto its own rook: e1h1
+        assertEquals(0x01, bytes[8]);
+        assertEquals(0x07, bytes[9]);
+
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(List.of(new OpeningBook.BookMove(move("e1g1"), 3), new OpeningBook.BookMove(move("e1c1"), 2),
+                new OpeningBook.BookMove(promotion, 1)), book.lookup(game));
+    }
+
+    @Test
+    @DisplayName("Polyglot Keys")
+    public void polyglotKeys() throws InvalidMoveException {
+        // The test positions from the Polyglot specification
+        ChessGame game = new ChessGame();
+        assertEquals(0x463b96181691fc9cL, OpeningBook.polyglotKey(game));
+        long[] keys = { 0x823c9b50fd114196L, 0x0756b94461c50fb0L, 0x662fafb965db29d4L, 0x22a48b5a8e47ff78L,
+                0x652a607ca3f242c1L, 0x00fdd303c946bdd9L };
+        String[] moves = { "e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7" };
+        for (int i = 0; i < moves.length; i++) {
+            game.makeMove(move(moves[i]));
+            assertEquals(keys[i], OpeningBook.polyglotKey(game), moves[i]);
+        }
+
+        game = new ChessGame();
+        for (String played : new String[] { "a2a4", "b7b5", "h2h4", "b5b4", "c2c4" }) {
+            game.makeMove(move(played));
+        }
+        assertEquals(0x3c8123ea7b067637L, OpeningBook.polyglotKey(game));
+        game.makeMove(move("b4c3"));
+        game.makeMove(move("a1a3"));
+        assertEquals(0x5c3f9b829b279560L, OpeningBook.polyglotKey(game));
+    }
+
+    @Test
+    @DisplayName("Reads Books Written Elsewhere")
+    public void foreignBook() throws IOException {
+        // Entries as any Polyglot tool writes them: 1. e4 from the start, and black castling short with e8h8
+        ChessGame castling = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1");
+        long[][] entries = { { OpeningBook.polyglotKey(new ChessGame()), (12 << 6) | 28 },
+                { OpeningBook.polyglotKey(castling), (60 << 6) | 63 } };
+        Arrays.sort(entries, (a, b) -> Long.compareUnsigned(a[0], b[0]));
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        for (long[] entry : entries) {
+            buffer.putLong(entry[0]).putShort((short) entry[1]).putShort((short) 1).putInt(0);
+        }
+        Path file = directory.resolve("foreign.bin");
+        Files.write(file, buffer.array());
+
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(move("e2e4"), book.pick(new ChessGame(), new Random(1)));
+        assertEquals(move("e8g8"), book.pick(castling, new Random(1)));
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Input")
+    public void badInput() throws IOException {
+        Path file = directory.resolve("short.bin");
+        Files.write(file, new byte[15]);
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+
+        OpeningBook.Builder builder = new OpeningBook.Builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.add(new ChessGame(), move("e2e5"), 1));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(new ChessGame(), move("e2e4"), 70000));
+    }
+
+    private static ChessMove move(String move) {
+        return new ChessMove(ChessPosition.of(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                ChessPosition.of(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), null);
+    }
+}